@@ -2,8 +2,10 @@ package restful.api.ezdine;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class EzdineApplication {
 
 	public static void main(String[] args) {
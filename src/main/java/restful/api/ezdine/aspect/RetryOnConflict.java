@@ -0,0 +1,22 @@
+package restful.api.ezdine.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the annotated transactional method when it fails with an optimistic
+ * locking conflict. Only use it on methods that are safe to execute again from
+ * scratch once their transaction has rolled back. Called inside an enclosing
+ * transaction the method runs once, and the enclosing boundary retries.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    int maxAttempts() default 3;
+
+    long backoffMs() default 20;
+
+}
@@ -0,0 +1,66 @@
+package restful.api.ezdine.aspect;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// must wrap the transaction advice so every attempt gets a fresh transaction, but sit
+// inside ExposeInvocationInterceptor, which binding the annotation argument relies on
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class RetryOnConflictAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public RetryOnConflictAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        // joined to an enclosing transaction a retry would rerun inside the same doomed transaction,
+        // so the method runs once and the outermost annotated boundary retries instead
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().toShortString();
+        int attempt = 1;
+
+        while (true) {
+            try {
+                Object result = joinPoint.proceed();
+
+                meterRegistry.counter("ezdine.optimistic.calls", "method", method, "outcome", "success").increment();
+
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("ezdine.optimistic.conflicts", "method", method).increment();
+
+                if (attempt >= retryOnConflict.maxAttempts()) {
+                    meterRegistry.counter("ezdine.optimistic.calls", "method", method, "outcome", "exhausted").increment();
+                    log.warn("Optimistic lock conflict on {} after {} attempts", method, attempt);
+
+                    throw e;
+                }
+
+                Thread.sleep(ThreadLocalRandom.current().nextLong(retryOnConflict.backoffMs() * attempt + 1));
+                attempt++;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package restful.api.ezdine.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import restful.api.ezdine.model.KitchenTicketResponse;
+import restful.api.ezdine.model.OrderResponse;
+import restful.api.ezdine.model.UpdateOrderPriorityRequest;
+import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.service.KitchenQueue;
+import restful.api.ezdine.service.OrderService;
+
+@RestController
+public class KitchenController {
+
+    @Autowired
+    private KitchenQueue kitchenQueue;
+
+    @Autowired
+    private OrderService orderService;
+
+    public KitchenController(KitchenQueue kitchenQueue, OrderService orderService) {
+        this.kitchenQueue = kitchenQueue;
+        this.orderService = orderService;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/kitchen/queue",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<KitchenTicketResponse>> queue(
+                                            @RequestParam(value = "limit", defaultValue = "100") Integer limit) {
+
+        List<KitchenTicketResponse> response = kitchenQueue.snapshot(limit);
+
+        return WebResponse.<List<KitchenTicketResponse>>builder()
+                                        .status(true)
+                                        .messages("Kitchen queue fetching success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/kitchen/queue/stream",
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter stream() {
+
+        return kitchenQueue.subscribe();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping(
+        path = "/api/kitchen/queue/{orderId}",
+        consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<OrderResponse> prioritize(@RequestBody UpdateOrderPriorityRequest request,
+                                            @PathVariable("orderId") String orderId) {
+
+        request.setId(orderId);
+
+        OrderResponse response = orderService.prioritize(request, orderId);
+
+        return WebResponse.<OrderResponse>builder()
+                                        .status(true)
+                                        .messages("Order priority update success")
+                                        .data(response)
+                                        .build();
+    }
+}
@@ -1,9 +1,11 @@
 package restful.api.ezdine.controller;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,12 +13,18 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import restful.api.ezdine.model.CursorPageResponse;
+import restful.api.ezdine.model.OrderIngestionResponse;
 import restful.api.ezdine.model.OrderResponse;
 import restful.api.ezdine.model.RegisterOrderRequest;
 import restful.api.ezdine.model.UpdateOrderRequest;
 import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.service.IdempotencyService;
 import restful.api.ezdine.service.OrderService;
 
 @RestController
@@ -25,8 +33,12 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
-    public OrderController(OrderService orderService) {
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    public OrderController(OrderService orderService, IdempotencyService idempotencyService) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
@@ -35,16 +47,66 @@ public class OrderController {
         consumes = MediaType.APPLICATION_JSON_VALUE,
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public WebResponse<OrderResponse> register(Authentication authentication, 
+    public ResponseEntity<WebResponse<OrderResponse>> register(Authentication authentication, 
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                             @RequestBody RegisterOrderRequest request) {
 
-        OrderResponse response = orderService.register(authentication, request);
+        if (orderService.isIngestionEnabled()) {
+            OrderResponse response = idempotencyService.execute(authentication, idempotencyKey, 
+                                            "POST /api/orders", request, OrderResponse.class,
+                                            () -> orderService.submit(authentication, request));
 
-        return WebResponse.<OrderResponse>builder()
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                        .body(WebResponse.<OrderResponse>builder()
+                                        .status(true)
+                                        .messages("Order accepted")
+                                        .data(response)
+                                        .build());
+        }
+
+        OrderResponse response = idempotencyService.execute(authentication, idempotencyKey, 
+                                            "POST /api/orders", request, OrderResponse.class,
+                                            () -> orderService.register(authentication, request));
+
+        return ResponseEntity.ok(WebResponse.<OrderResponse>builder()
                                         .status(true)
                                         .messages("Order registration success")
                                         .data(response)
-                                        .build();      
+                                        .build());      
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/orders/ingestion/{orderId}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public CompletableFuture<WebResponse<OrderIngestionResponse>> ingestion(Authentication authentication,
+                                            @PathVariable("orderId") String orderId,
+                                            @RequestParam(value = "waitMs", defaultValue = "0") Long waitMs) {
+
+        return orderService.ingestion(authentication, orderId, waitMs)
+                                        .thenApply(response -> WebResponse.<OrderIngestionResponse>builder()
+                                        .status(true)
+                                        .messages("Order ingestion fetching success")
+                                        .data(response)
+                                        .build());
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/orders/by-ref/{orderRef}",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<OrderResponse> getByRef(Authentication authentication,
+                                            @PathVariable("orderRef") String orderRef) {
+
+        OrderResponse response = orderService.getByRef(authentication, orderRef);
+
+        return WebResponse.<OrderResponse>builder()
+                                        .status(true)
+                                        .messages("Order fetching success")
+                                        .data(response)
+                                        .build();
     }
 
     @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
@@ -64,16 +126,30 @@ public class OrderController {
                                         .build();      
     }
 
+    @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/orders/{orderId}/events",
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter events(Authentication authentication,
+                                            @PathVariable("orderId") String orderId) {
+
+        return orderService.events(authentication, orderId);
+    }
+
     @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
     @GetMapping(
         path = "/api/users/orders",                
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public WebResponse<List<OrderResponse>> userOrder(Authentication authentication) {
+    public WebResponse<CursorPageResponse<OrderResponse>> userOrder(Authentication authentication,
+                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                            @RequestParam(value = "size", defaultValue = "20") Integer size,
+                                            @RequestParam(value = "embed", required = false) String embed) {
 
-        List<OrderResponse> response = orderService.userOrder(authentication);
+        CursorPageResponse<OrderResponse> response = orderService.userOrder(authentication, cursor, size, embed);
 
-        return WebResponse.<List<OrderResponse>>builder()
+        return WebResponse.<CursorPageResponse<OrderResponse>>builder()
                                         .status(true)
                                         .messages("Order listing success")
                                         .data(response)
@@ -85,11 +161,17 @@ public class OrderController {
         path = "/api/orders",                
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public WebResponse<List<OrderResponse>> list() {
+    public WebResponse<CursorPageResponse<OrderResponse>> list(
+                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                            @RequestParam(value = "size", defaultValue = "50") Integer size,
+                                            @RequestParam(value = "status", required = false) String status,
+                                            @RequestParam(value = "userId", required = false) String userId,
+                                            @RequestParam(value = "from", required = false) String from,
+                                            @RequestParam(value = "to", required = false) String to) {
 
-        List<OrderResponse> response = orderService.list();
+        CursorPageResponse<OrderResponse> response = orderService.list(cursor, size, status, userId, from, to);
 
-        return WebResponse.<List<OrderResponse>>builder()
+        return WebResponse.<CursorPageResponse<OrderResponse>>builder()
                                         .status(true)
                                         .messages("Order listing success")
                                         .data(response)
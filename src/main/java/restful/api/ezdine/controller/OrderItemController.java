@@ -12,12 +12,14 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 import restful.api.ezdine.model.OrderItemResponse;
 import restful.api.ezdine.model.RegisterOrderItemRequest;
 import restful.api.ezdine.model.UpdateOrderItemRequest;
 import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.service.IdempotencyService;
 import restful.api.ezdine.service.OrderItemService;
 
 @RestController
@@ -26,8 +28,12 @@ public class OrderItemController {
     @Autowired
     private OrderItemService orderItemService;
 
-    public OrderItemController(OrderItemService orderItemService) {
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    public OrderItemController(OrderItemService orderItemService, IdempotencyService idempotencyService) {
         this.orderItemService = orderItemService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PreAuthorize("hasRole('ROLE_USER') or hasRole('ROLE_ADMIN')")
@@ -38,11 +44,14 @@ public class OrderItemController {
     )
     public WebResponse<OrderItemResponse> register(Authentication authentication,
                                             @PathVariable("orderId") String orderId,                                            
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                             @RequestBody RegisterOrderItemRequest request) {
 
         request.setOrderId(orderId);
 
-        OrderItemResponse response = orderItemService.register(authentication, orderId, request);
+        OrderItemResponse response = idempotencyService.execute(authentication, idempotencyKey, 
+                                            "POST /api/orders/" + orderId + "/items", request, OrderItemResponse.class,
+                                            () -> orderItemService.register(authentication, orderId, request));
 
         return WebResponse.<OrderItemResponse>builder()
                                         .status(true)
@@ -111,18 +120,18 @@ public class OrderItemController {
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping(
-        path = "/api/orders/{orderId}/foods/{itemId}",
+        path = "/api/orders/{orderId}/items/{itemId}",
         produces = MediaType.APPLICATION_JSON_VALUE
     )
     public WebResponse<String> delete(Authentication authentication,
-                                        @PathVariable("categoryId") String categoryId,
-                                        @PathVariable("foodId") String foodId) {
+                                        @PathVariable("orderId") String orderId,
+                                        @PathVariable("itemId") String itemId) {
 
-        orderItemService.delete(authentication, categoryId, foodId);
+        orderItemService.delete(authentication, orderId, itemId);
 
         return WebResponse.<String>builder()
                                         .status(true)
-                                        .messages("Food delete success")
+                                        .messages("Item delete success")
                                         .build();      
     }
 }
@@ -0,0 +1,67 @@
+package restful.api.ezdine.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import restful.api.ezdine.model.SalesReportResponse;
+import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.service.OrderExportService;
+import restful.api.ezdine.service.SalesRollupService;
+
+@RestController
+public class ReportController {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    public ReportController(SalesRollupService salesRollupService, OrderExportService orderExportService) {
+        this.salesRollupService = salesRollupService;
+        this.orderExportService = orderExportService;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/reports/sales",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<SalesReportResponse>> sales(@RequestParam(value = "from") String from,
+                                            @RequestParam(value = "to", required = false) String to) {
+
+        List<SalesReportResponse> response = salesRollupService.report(from, to);
+
+        return WebResponse.<List<SalesReportResponse>>builder()
+                                        .status(true)
+                                        .messages("Sales report fetching success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/reports/orders.csv",
+        produces = "text/csv"
+    )
+    public ResponseEntity<StreamingResponseBody> ordersCsv(@RequestParam(value = "from") String from,
+                                            @RequestParam(value = "to", required = false) String to) {
+
+        StreamingResponseBody body = orderExportService.export(from, to);
+
+        return ResponseEntity.ok()
+                                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders-" + from + ".csv\"")
+                                        .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                                        .body(body);
+    }
+}
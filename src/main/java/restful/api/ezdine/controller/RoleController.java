@@ -0,0 +1,54 @@
+package restful.api.ezdine.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.security.RoleRegistry;
+
+@RestController
+public class RoleController {
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    public RoleController(RoleRegistry roleRegistry) {
+        this.roleRegistry = roleRegistry;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(
+        path = "/api/roles",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<String>> list() {
+        List<String> response = roleRegistry.names();
+
+        return WebResponse.<List<String>>builder()
+                                        .status(true)
+                                        .messages("Role fetching success")
+                                        .data(response)
+                                        .build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(
+        path = "/api/roles/refresh",
+        produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public WebResponse<List<String>> refresh() {
+        List<String> response = roleRegistry.refresh();
+
+        return WebResponse.<List<String>>builder()
+                                        .status(true)
+                                        .messages("Role registry refresh success")
+                                        .data(response)
+                                        .build();
+    }
+}
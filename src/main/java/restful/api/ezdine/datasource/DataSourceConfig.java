@@ -0,0 +1,71 @@
+package restful.api.ezdine.datasource;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class DataSourceConfig implements DisposableBean {
+
+    private HikariDataSource routedPrimary;
+
+    // without a replica configured this is the plain primary pool, built and bound from spring.datasource.hikari.*
+    // the same way auto-configuration would build it
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, ReplicaMonitor replicaMonitor, MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${ezdine.datasource.replica.routed-prefix:restful.api.ezdine.service.}") String routedPrefix) {
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        if (!StringUtils.hasText(primary.getPoolName())) {
+            primary.setPoolName(ReadReplicaRoutingDataSource.PRIMARY);
+        }
+
+        Optional<DataSource> replica = replicaMonitor.dataSource();
+
+        if (replica.isEmpty()) {
+            return primary;
+        }
+
+        // behind the routing proxy auto-configuration can no longer see the pool, so bind its metrics here
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        routedPrimary = primary;
+
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(replicaMonitor, routedPrefix, meterRegistry);
+        routing.setTargetDataSources(Map.of(
+                ReadReplicaRoutingDataSource.PRIMARY, primary,
+                ReadReplicaRoutingDataSource.REPLICA, replica.get()));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        // the connection is only fetched at the first statement, once the read-only flag is known
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    public void destroy() {
+        if (Objects.nonNull(routedPrimary)) {
+            routedPrimary.close();
+        }
+    }
+}
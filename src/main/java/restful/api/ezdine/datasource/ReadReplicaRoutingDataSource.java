@@ -0,0 +1,63 @@
+package restful.api.ezdine.datasource;
+
+import java.util.Objects;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions opened by the service layer to the replica
+ * while ReplicaMonitor reports it in rotation, and everything else to the
+ * primary. Spring Data marks every repository finder read-only as well; those
+ * stay on the primary, so lookups made straight after a write (the token
+ * check following a login, for one) always see it.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    public static final String REPLICA = "replica";
+
+    private final ReplicaMonitor replicaMonitor;
+
+    private final String routedPrefix;
+
+    private final Counter primaryRoutes;
+
+    private final Counter replicaRoutes;
+
+    private final Counter fallbacks;
+
+    public ReadReplicaRoutingDataSource(ReplicaMonitor replicaMonitor, String routedPrefix, MeterRegistry meterRegistry) {
+        this.replicaMonitor = replicaMonitor;
+        this.routedPrefix = routedPrefix;
+        this.primaryRoutes = Counter.builder("ezdine.datasource.routes").tag("target", PRIMARY).register(meterRegistry);
+        this.replicaRoutes = Counter.builder("ezdine.datasource.routes").tag("target", REPLICA).register(meterRegistry);
+        this.fallbacks = Counter.builder("ezdine.datasource.replica.fallbacks").register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+
+        boolean routable = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && Objects.nonNull(transaction) && transaction.startsWith(routedPrefix);
+
+        if (!routable) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+
+        if (!replicaMonitor.isAvailable()) {
+            fallbacks.increment();
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+
+        replicaRoutes.increment();
+        return REPLICA;
+    }
+}
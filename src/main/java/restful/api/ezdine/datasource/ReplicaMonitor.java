@@ -0,0 +1,132 @@
+package restful.api.ezdine.datasource;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the replica pool and decides whether it may serve reads. Replication
+ * lag is polled on a schedule rather than per transaction; a replica that is
+ * unreachable, no longer streaming from the primary, or further behind than
+ * the configured bound is taken out of rotation until a later check finds it
+ * caught up.
+ */
+@Component
+@Slf4j
+public class ReplicaMonitor {
+
+    // equal receive and replay positions only mean caught up while the WAL receiver is still streaming, a
+    // disconnected standby reports them equal too, so it reads as null (out of rotation) instead. Without
+    // pg_read_all_stats the receiver's status reads as null and a running receiver counts as streaming.
+    // A fully replayed standby reports zero even when the primary has been idle for a while, and a server
+    // that is not a standby at all has no lag.
+    private static final String SELECT_LAG_MS = "select case "
+            + "when not pg_is_in_recovery() then 0 "
+            + "when not exists (select 1 from pg_stat_wal_receiver where coalesce(status, 'streaming') = 'streaming') then null "
+            + "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end";
+
+    private final HikariDataSource replica;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ezdine.datasource.replica.max-lag-ms:1000}")
+    private Long maxLagMs;
+
+    private volatile boolean available = false;
+
+    private volatile double lagMs = -1;
+
+    public ReplicaMonitor(DataSourceProperties primaryProperties, MeterRegistry meterRegistry, Environment environment,
+            @Value("${ezdine.datasource.replica.url:}") String url,
+            @Value("${ezdine.datasource.replica.username:}") String username,
+            @Value("${ezdine.datasource.replica.password:}") String password,
+            @Value("${ezdine.datasource.replica.maximum-pool-size:10}") Integer maximumPoolSize) {
+
+        if (!StringUtils.hasText(url)) {
+            this.replica = null;
+            this.jdbcTemplate = null;
+            return;
+        }
+
+        // shares the primary's pool tuning, the replica-specific settings below take precedence
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("replica");
+        pool.setJdbcUrl(url);
+        pool.setUsername(StringUtils.hasText(username) ? username : primaryProperties.determineUsername());
+        pool.setPassword(StringUtils.hasText(password) ? password : primaryProperties.determinePassword());
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setReadOnly(true);
+        // do not hold up startup on a replica that is down, the monitor keeps it out of rotation
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        this.replica = pool;
+        this.jdbcTemplate = new JdbcTemplate(pool);
+
+        Gauge.builder("ezdine.datasource.replica.lag", this, p -> p.lagMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("ezdine.datasource.replica.available", this, p -> p.available ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public Optional<DataSource> dataSource() {
+        return Optional.ofNullable(replica);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ezdine.datasource.replica.check-interval-ms:2000}")
+    public void check() {
+        if (Objects.isNull(replica)) {
+            return;
+        }
+
+        boolean wasAvailable = available;
+
+        try {
+            Double lag = jdbcTemplate.queryForObject(SELECT_LAG_MS, Double.class);
+
+            lagMs = Objects.nonNull(lag) ? lag : -1;
+            available = Objects.nonNull(lag) && lagMs <= maxLagMs;
+        } catch (Exception e) {
+            lagMs = -1;
+            available = false;
+            log.debug("Replica lag check failed: {}", e.getMessage());
+        }
+
+        if (wasAvailable != available) {
+            log.warn("Replica {} rotation, lag {} ms", available ? "back in" : "out of", lagMs);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (Objects.nonNull(replica)) {
+            replica.close();
+        }
+    }
+}
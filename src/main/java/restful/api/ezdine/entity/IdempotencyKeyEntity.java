@@ -0,0 +1,56 @@
+package restful.api.ezdine.entity;
+
+import java.util.Date;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(
+    name = "idempotency_keys",
+    uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_username_key", columnNames = {"username", "idempotency_key"})
+)
+public class IdempotencyKeyEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(length = 64, nullable = false)
+    private String username;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String route;
+
+    // SHA-256 of the request body, null on keys stored before bodies were compared
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    // null while the first request is still running
+    @Column(columnDefinition = "text")
+    private String response;
+
+    @CreationTimestamp
+    @Column(updatable = false, name = "created_at")
+    private Date createdAt;
+
+    @Column(name = "expired_at", nullable = false)
+    private Date expiredAt;
+}
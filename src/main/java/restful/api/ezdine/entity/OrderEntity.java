@@ -1,22 +1,28 @@
 package restful.api.ezdine.entity;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,16 +33,26 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "orders")
+@DynamicUpdate
+@Table(
+    name = "orders",
+    indexes = {
+        @Index(name = "uk_orders_order_id", columnList = "order_id", unique = true),
+        @Index(name = "idx_orders_placed_at_id", columnList = "placed_at, id"),
+        @Index(name = "idx_orders_status_placed_at_id", columnList = "status, placed_at, id"),
+        @Index(name = "idx_orders_user_id_placed_at_id", columnList = "user_id, placed_at, id")
+    }
+)
 public class OrderEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
     
-    @Column(name = "order_id")
-    private String orderId;
+    @Column(name = "order_id", columnDefinition = "uuid")
+    private UUID orderId;
 
-    private String date;
+    @Column(name = "placed_at", columnDefinition = "timestamptz")
+    private Instant placedAt;
     
     @Column(name = "subtotal")
     private Integer subTotal;
@@ -46,10 +62,19 @@ public class OrderEntity {
     @Column(name = "total_price")
     private Integer totalPrice;
 
-    private String status;
+    @Convert(converter = OrderStatusConverter.class)
+    private OrderStatus status;
 
     private String remark;
 
+    // higher is cooked first, ties go to the earliest placed order
+    @Column(columnDefinition = "integer default 0")
+    private Integer priority;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @CreationTimestamp
     @Column(updatable = false, name = "created_at")
     private Date createdAt;
@@ -58,7 +83,7 @@ public class OrderEntity {
     @Column(updatable = true, name = "updated_at")
     private Date updatedAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, referencedColumnName = "id")
     private UserEntity userEntity;
 
@@ -0,0 +1,82 @@
+package restful.api.ezdine.entity;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Order lifecycle. Labels are what the column and the API have always carried,
+ * so existing rows and clients keep working; transitions are checked before a
+ * status write is accepted.
+ */
+public enum OrderStatus {
+
+    WAITING_PAYMENT("waiting payment"),
+    PAID("paid"),
+    PREPARING("preparing"),
+    READY("ready"),
+    COMPLETED("completed"),
+    CANCELLED("cancelled"),
+
+    // a legacy label none of the above matches; read-only, never parsed from input or written back
+    UNKNOWN("unknown");
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Set<OrderStatus> next() {
+        return switch (this) {
+            case WAITING_PAYMENT -> EnumSet.of(PAID, CANCELLED);
+            case PAID -> EnumSet.of(PREPARING, CANCELLED);
+            case PREPARING -> EnumSet.of(READY);
+            case READY -> EnumSet.of(COMPLETED);
+            case COMPLETED, CANCELLED, UNKNOWN -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return next().contains(target);
+    }
+
+    public boolean isOpen() {
+        return this != COMPLETED && this != CANCELLED && this != UNKNOWN;
+    }
+
+    // paid orders are the kitchen's to cook until they are marked ready
+    public boolean isInKitchen() {
+        return this == PAID || this == PREPARING;
+    }
+
+    public static Set<OrderStatus> kitchenStatuses() {
+        return EnumSet.of(PAID, PREPARING);
+    }
+
+    // accepts the stored label as well as the constant name, in any case
+    public static OrderStatus fromLabel(String value) {
+        return find(value).orElseThrow(() -> new IllegalArgumentException("Unknown order status: " + value));
+    }
+
+    public static Optional<OrderStatus> find(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+
+        for (OrderStatus status : values()) {
+            if (status == UNKNOWN) {
+                continue;
+            }
+
+            if (status.label.equals(normalized) || status.name().toLowerCase(Locale.ROOT).equals(normalized)) {
+                return Optional.of(status);
+            }
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,44 @@
+package restful.api.ezdine.entity;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.extern.slf4j.Slf4j;
+
+@Converter
+@Slf4j
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, String> {
+
+    private static final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    // OrderEntity only writes the status column when the status changed, and nothing may change
+    // it to UNKNOWN, so the original legacy label stays in the database untouched
+    @Override
+    public String convertToDatabaseColumn(OrderStatus status) {
+        if (status == OrderStatus.UNKNOWN) {
+            throw new IllegalStateException("Unknown legacy order status cannot be written");
+        }
+
+        return Objects.nonNull(status) ? status.getLabel() : null;
+    }
+
+    // a label nothing maps to reads as UNKNOWN, which refuses every transition and stays out of the kitchen,
+    // rather than failing every query that happens to load the row
+    @Override
+    public OrderStatus convertToEntityAttribute(String label) {
+        if (Objects.isNull(label)) {
+            return null;
+        }
+
+        return OrderStatus.find(label).orElseGet(() -> {
+            if (reported.add(label)) {
+                log.warn("Unknown order status '{}' read as {}", label, OrderStatus.UNKNOWN.getLabel());
+            }
+
+            return OrderStatus.UNKNOWN;
+        });
+    }
+}
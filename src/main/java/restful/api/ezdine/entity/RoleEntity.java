@@ -3,6 +3,8 @@ package restful.api.ezdine.entity;
 import java.util.Date;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -25,6 +27,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Table(name = "roles")
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 public class RoleEntity {
 
     @Id
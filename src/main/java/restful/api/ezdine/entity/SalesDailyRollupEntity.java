@@ -0,0 +1,53 @@
+package restful.api.ezdine.entity;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(
+    name = "sales_daily_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_sales_daily_rollup_day_category_food", columnNames = {"day", "category_id", "food_id"})
+)
+public class SalesDailyRollupEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    // plain ids rather than associations: history must survive menu edits and deletes
+    @Column(name = "category_id", nullable = false)
+    private Integer categoryId;
+
+    @Column(name = "food_id", nullable = false)
+    private Integer foodId;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(nullable = false)
+    private Long revenue;
+
+    @UpdateTimestamp
+    @Column(updatable = true, name = "updated_at")
+    private Date updatedAt;
+}
@@ -58,10 +58,11 @@ public class UserEntity {
     @OneToMany(mappedBy = "userEntity", cascade = CascadeType.ALL)
     private List<CategoryEntity> categories;
 
-    @OneToOne(mappedBy = "userEntity", cascade = CascadeType.ALL)    
+    // only honoured on enhanced builds, plain proxies cannot defer the inverse side of a one-to-one
+    @OneToOne(mappedBy = "userEntity", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private ProfileEntity profileEntity;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.MERGE)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
     @JoinTable(
         name = "users_roles",
         joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
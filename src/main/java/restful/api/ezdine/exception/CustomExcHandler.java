@@ -1,6 +1,7 @@
 package restful.api.ezdine.exception;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -147,4 +148,13 @@ public class CustomExcHandler {
                                             .errors(exception.getMessage())
                                             .build());
     }
+
+    @ExceptionHandler
+    public ResponseEntity<WebResponse<String>> optimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(WebResponse.<String>builder()
+                                            .status(false)
+                                            .errors("Resource was modified concurrently, please retry")
+                                            .build());
+    }
 }
@@ -1,18 +1,21 @@
 package restful.api.ezdine.mapper;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 import restful.api.ezdine.entity.CategoryEntity;
 import restful.api.ezdine.entity.FoodEntity;
 import restful.api.ezdine.entity.OrderEntity;
 import restful.api.ezdine.entity.OrderItemEntity;
+import restful.api.ezdine.entity.OrderStatus;
 import restful.api.ezdine.entity.ProfileEntity;
 import restful.api.ezdine.entity.UserEntity;
 import restful.api.ezdine.model.CategoryResponse;
 import restful.api.ezdine.model.FoodResponse;
 import restful.api.ezdine.model.OrderItemResponse;
 import restful.api.ezdine.model.OrderResponse;
+import restful.api.ezdine.model.OrderStatusEvent;
 import restful.api.ezdine.model.ProfileResponse;
 import restful.api.ezdine.model.TokenResponse;
 import restful.api.ezdine.model.UserResponse;
@@ -44,15 +47,6 @@ public class ResponseMapper {
                 .build();
     }
 
-    public static List<CategoryResponse> ToCategoryResponseListMapper(List<CategoryEntity> categories) {
-        return categories.stream()
-                            .map(
-                                p -> new CategoryResponse(
-                                    p.getId(),
-                                    p.getName()
-                                )).collect(Collectors.toList());
-    }
-
     public static FoodResponse ToFoodResponseMapper(FoodEntity food) {
         Integer categoryId = food.getCategoryEntity().getId();
 
@@ -69,22 +63,6 @@ public class ResponseMapper {
                 .build();
     }
 
-    public static List<FoodResponse> ToFoodResponseListMapper(List<FoodEntity> foods) {
-        return foods.stream()
-                    .map(
-                        p -> new FoodResponse(
-                            p.getId(),
-                            p.getCategoryEntity().getId(),
-                            p.getCategoryEntity().getName(),
-                            p.getCode(),
-                            p.getName(),
-                            p.getDescription(),
-                            p.getPrice(),
-                            p.getStock(),
-                            p.getPhotoUrl()
-                        )).collect(Collectors.toList());
-    }
-
     public static ProfileResponse ToProfileResponseMapper(ProfileEntity profile) {
         return ProfileResponse.builder()
                 .id(profile.getId())
@@ -102,26 +80,22 @@ public class ResponseMapper {
         return OrderResponse.builder()
                 .id(order.getId())
                 .orderId(order.getOrderId())    
-                .date(order.getDate())            
+                .placedAt(order.getPlacedAt())            
                 .subTotal(order.getSubTotal())        
                 .tax(order.getTax())        
                 .totalPrice(order.getTotalPrice())    
-                .status(order.getStatus())
+                .status(Objects.nonNull(order.getStatus()) ? order.getStatus().getLabel() : null)
                 .build();
     }
 
-    public static List<OrderResponse> ToOrderResponseListMapper(List<OrderEntity> orders) {
-        return orders.stream()
-                        .map(
-                            p -> new OrderResponse(
-                                p.getId(),
-                                p.getOrderId(),
-                                p.getDate(),
-                                p.getSubTotal(),
-                                p.getTax(),
-                                p.getTotalPrice(),
-                                p.getStatus()
-                            )).collect(Collectors.toList());
+    public static OrderStatusEvent ToOrderStatusEventMapper(OrderEntity order, OrderStatus previous) {
+        return OrderStatusEvent.builder()
+                .id(order.getId())
+                .orderId(order.getOrderId())
+                .previousStatus(Objects.nonNull(previous) ? previous.getLabel() : null)
+                .status(Objects.nonNull(order.getStatus()) ? order.getStatus().getLabel() : null)
+                .changedAt(Instant.now())
+                .build();
     }
 
     public static OrderItemResponse ToOrderItemResponseMapper(OrderItemEntity item) {
@@ -135,16 +109,4 @@ public class ResponseMapper {
                 .build();
     }
 
-    public static List<OrderItemResponse> ToOrderItemResponseListMapper(List<OrderItemEntity> items) {
-        return items.stream()
-                        .map(
-                            p -> new OrderItemResponse(
-                                p.getId(),
-                                p.getOrderEntity().getId(),
-                                p.getFoodEntity().getId(),
-                                p.getFoodEntity().getName(),
-                                p.getQuantity(),
-                                p.getSubTotal()
-                            )).collect(Collectors.toList());        
-    }
 }
@@ -0,0 +1,24 @@
+package restful.api.ezdine.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+
+    // opaque, pass back as ?cursor= to fetch the next page; null on the last page
+    private String nextCursor;
+
+    // planner estimate of the unfiltered total; null when the listing is filtered
+    private Long totalEstimate;
+
+}
@@ -0,0 +1,30 @@
+package restful.api.ezdine.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class KitchenTicketResponse {
+
+    private Integer id;
+
+    private UUID orderId;
+
+    private String status;
+
+    private Integer priority;
+
+    private Instant placedAt;
+
+    private List<OrderItemResponse> items;
+
+}
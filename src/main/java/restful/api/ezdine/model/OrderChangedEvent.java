@@ -0,0 +1,17 @@
+package restful.api.ezdine.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// items or priority of an order changed; status changes travel as OrderStatusEvent
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderChangedEvent {
+
+    private Integer id;
+
+}
@@ -0,0 +1,22 @@
+package restful.api.ezdine.model;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderIngestionResponse {
+
+    private UUID orderId;
+
+    private String state;
+
+    private OrderResponse order;
+
+}
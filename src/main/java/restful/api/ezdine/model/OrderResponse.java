@@ -1,9 +1,17 @@
 package restful.api.ezdine.model;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import restful.api.ezdine.entity.OrderStatus;
 
 @Data
 @AllArgsConstructor
@@ -13,9 +21,9 @@ public class OrderResponse {
 
     private Integer id;
 
-    private String orderId;
+    private UUID orderId;
 
-    private String date;
+    private Instant placedAt;
         
     private Integer subTotal;
     
@@ -25,4 +33,14 @@ public class OrderResponse {
 
     private String status;
 
+    // only filled when the caller asks for ?embed=items
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<OrderItemResponse> items;
+
+    // target of the repository constructor expressions, the status arrives converted
+    public OrderResponse(Integer id, UUID orderId, Instant placedAt, Integer subTotal,
+                        Double tax, Integer totalPrice, OrderStatus status) {
+        this(id, orderId, placedAt, subTotal, tax, totalPrice, Objects.nonNull(status) ? status.getLabel() : null, null);
+    }
+
 }
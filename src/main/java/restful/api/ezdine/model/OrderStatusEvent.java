@@ -0,0 +1,28 @@
+package restful.api.ezdine.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderStatusEvent {
+
+    private Integer id;
+
+    private UUID orderId;
+
+    // null when the order has just been placed
+    private String previousStatus;
+
+    private String status;
+
+    private Instant changedAt;
+
+}
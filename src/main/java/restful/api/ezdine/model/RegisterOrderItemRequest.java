@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,9 +24,7 @@ public class RegisterOrderItemRequest {
     private String foodId;
 
     @NotNull
+    @Positive
     private Integer quantity;
 
-    @NotNull
-    private Integer subTotal;
-
 }
@@ -1,7 +1,6 @@
 package restful.api.ezdine.model;
 
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,15 +12,6 @@ import lombok.NoArgsConstructor;
 @Builder
 public class RegisterOrderRequest {
 
-    @NotNull
-    private Integer subTotal;
-
-    @NotNull
-    private Double tax;
-
-    @NotNull
-    private Integer totalPrice;
-
     @NotBlank
     private String status;
 
@@ -0,0 +1,30 @@
+package restful.api.ezdine.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SalesReportResponse {
+
+    private LocalDate day;
+
+    private Integer categoryId;
+
+    private String categoryName;
+
+    private Integer foodId;
+
+    private String foodName;
+
+    private Long quantity;
+
+    private Long revenue;
+
+}
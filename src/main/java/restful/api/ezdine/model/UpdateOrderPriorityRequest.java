@@ -0,0 +1,27 @@
+package restful.api.ezdine.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpdateOrderPriorityRequest {
+
+    @NotBlank
+    @JsonIgnore
+    private String id;
+
+    @NotNull
+    @PositiveOrZero
+    private Integer priority;
+
+}
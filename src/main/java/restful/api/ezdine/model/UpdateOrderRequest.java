@@ -17,12 +17,6 @@ public class UpdateOrderRequest {
     @NotBlank
     @JsonIgnore
     private String id;
-    
-    private Integer subTotal;
-    
-    private Double tax;
-
-    private Integer totalPrice;
 
     private String status;
 
@@ -0,0 +1,26 @@
+package restful.api.ezdine.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserSummary {
+
+    private Integer id;
+
+    private String email;
+
+    private String password;
+
+    private Long tokenExpiredAt;
+
+    private List<Long> roleIds;
+
+}
@@ -0,0 +1,40 @@
+package restful.api.ezdine.monitoring;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy, so every statement
+ * Hibernate, Spring Data and JdbcTemplate issue passes the SQL listeners.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    // resolved when the DataSource is wrapped, not when post-processors are registered
+    public DataSourceProxyPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+
+        SqlStatisticsListener statisticsListener = new SqlStatisticsListener();
+
+        return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(statisticsListener)
+                    .listener(slowQueryLog.getObject())
+                    .build();
+    }
+}
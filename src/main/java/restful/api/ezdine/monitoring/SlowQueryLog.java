@@ -0,0 +1,123 @@
+package restful.api.ezdine.monitoring;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Logs statements slower than a threshold plus a random sample of the rest.
+ * The calling thread only decides whether to keep a statement and hands it to
+ * a bounded queue; redaction and the actual logging happen on one background
+ * thread, and records are dropped rather than ever blocking a query.
+ * Bind values are never logged and inline literals are masked.
+ */
+@Component
+@Slf4j
+public class SlowQueryLog implements QueryExecutionListener {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Value("${ezdine.sql.slow.threshold-ms:200}")
+    private Long thresholdMs;
+
+    @Value("${ezdine.sql.slow.sample-rate:0.01}")
+    private Double sampleRate;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final ThreadPoolExecutor writer;
+
+    public SlowQueryLog(@Value("${ezdine.sql.slow.queue-capacity:10000}") Integer queueCapacity) {
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "slow-query-logger");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (r, executor) -> dropped.incrementAndGet());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        boolean slow = elapsedMs >= thresholdMs;
+
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        // only references are captured here, the strings are built on the writer thread
+        List<String> queries = queryInfoList.stream().map(QueryInfo::getQuery).toList();
+        String route = route();
+        boolean success = execInfo.isSuccess();
+        int batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+
+        writer.execute(() -> log.info("{} {} ms route=[{}] success={} batch={} sql=[{}]",
+                slow ? "slow" : "sampled", elapsedMs, route, success, batchSize, redact(queries)));
+    }
+
+    @Scheduled(fixedDelayString = "${ezdine.sql.slow.drop-report-interval-ms:60000}")
+    public void reportDropped() {
+        long count = dropped.getAndSet(0);
+
+        if (count > 0) {
+            log.warn("Slow query log dropped {} records, the writer could not keep up", count);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private String route() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (Objects.isNull(attributes)) {
+            return "background";
+        }
+
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        String method = attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest().getMethod() : "";
+
+        return method + " " + (Objects.nonNull(pattern) ? pattern : "UNKNOWN");
+    }
+
+    private String redact(List<String> queries) {
+        return queries.stream()
+                .map(sql -> STRING_LITERAL.matcher(sql).replaceAll("'?'"))
+                .map(sql -> NUMBER_LITERAL.matcher(sql).replaceAll("?"))
+                .map(sql -> WHITESPACE.matcher(sql).replaceAll(" ").trim())
+                .collect(Collectors.joining("; "));
+    }
+}
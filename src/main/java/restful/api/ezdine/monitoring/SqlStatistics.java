@@ -0,0 +1,58 @@
+package restful.api.ezdine.monitoring;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Getter;
+
+/**
+ * Statement, written row and database time counters for the SQL issued by
+ * one HTTP request. SqlStatisticsFilter binds an instance to the request thread and the
+ * datasource proxy feeds it. Identical statements are tallied too, since one
+ * select repeated many times within a request is what an N+1 looks like.
+ */
+@Getter
+public class SqlStatistics {
+
+    public static final String REQUEST_ATTRIBUTE = SqlStatistics.class.getName();
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private long rowsWritten;
+
+    private long elapsedMs;
+
+    private final Map<String, Integer> repeats = new HashMap<>();
+
+    static SqlStatistics bind() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    static Optional<SqlStatistics> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    void recordExecution(List<String> sqls, long elapsedMs) {
+        this.statements++;
+        this.elapsedMs += elapsedMs;
+        sqls.forEach(sql -> this.repeats.merge(sql, 1, Integer::sum));
+    }
+
+    void recordRowsWritten(long rows) {
+        this.rowsWritten += rows;
+    }
+
+    public Optional<Map.Entry<String, Integer>> mostRepeated() {
+        return repeats.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+}
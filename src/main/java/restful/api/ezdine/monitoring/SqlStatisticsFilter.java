@@ -0,0 +1,101 @@
+package restful.api.ezdine.monitoring;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the SQL issued while serving a request and records it per route:
+ * statement, written row and database time histograms, a warning for requests
+ * over the statement budget, and one for statements repeated often enough to
+ * look like an N+1. The totals are left on the request for tests to assert against.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ezdine.sql.statement-warn-threshold:25}")
+    private Integer statementWarnThreshold;
+
+    @Value("${ezdine.sql.repeat-warn-threshold:5}")
+    private Integer repeatWarnThreshold;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        SqlStatistics statistics = SqlStatistics.bind();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatistics.unbind();
+
+            request.setAttribute(SqlStatistics.REQUEST_ATTRIBUTE, statistics);
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = Objects.nonNull(pattern) ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("ezdine.sql.statements")
+                .tag("method", method)
+                .tag("route", route)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+
+        DistributionSummary.builder("ezdine.sql.rows.written")
+                .tag("method", method)
+                .tag("route", route)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getRowsWritten());
+
+        Timer.builder("ezdine.sql.time")
+                .tag("method", method)
+                .tag("route", route)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getElapsedMs(), TimeUnit.MILLISECONDS);
+
+        if (statistics.getStatements() > statementWarnThreshold) {
+            log.warn("{} {} issued {} statements, {} rows written, {} ms in the database",
+                    method, route, statistics.getStatements(), statistics.getRowsWritten(), statistics.getElapsedMs());
+        }
+
+        statistics.mostRepeated()
+                .filter(p -> p.getValue() >= repeatWarnThreshold)
+                .map(Map.Entry::getKey)
+                .ifPresent(sql -> log.warn("Possible N+1 on {} {}: {} x {}",
+                        method, route, statistics.getRepeats().get(sql), sql));
+    }
+}
@@ -0,0 +1,38 @@
+package restful.api.ezdine.monitoring;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Feeds the statistics bound to the calling thread, if any. Statements run on
+ * background threads (ingestion, archival, stock flushes) have nothing bound
+ * and pass through untouched.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics.current().ifPresent(statistics -> {
+            // a batch is one round trip however many queries it carries, so its time is counted once
+            statistics.recordExecution(queryInfoList.stream().map(QueryInfo::getQuery).toList(), execInfo.getElapsedTime());
+
+            // only writes report a row count; selects would need every result set proxied
+            Object result = execInfo.getResult();
+
+            if (result instanceof Integer count) {
+                statistics.recordRowsWritten(count);
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    statistics.recordRowsWritten(Math.max(count, 0));
+                }
+            }
+        });
+    }
+}
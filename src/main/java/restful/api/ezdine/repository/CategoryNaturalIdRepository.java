@@ -0,0 +1,11 @@
+package restful.api.ezdine.repository;
+
+import java.util.Optional;
+
+import restful.api.ezdine.entity.CategoryEntity;
+
+public interface CategoryNaturalIdRepository {
+
+    Optional<CategoryEntity> findByNaturalName(String name);
+
+}
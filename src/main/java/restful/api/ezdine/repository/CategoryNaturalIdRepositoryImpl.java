@@ -0,0 +1,23 @@
+package restful.api.ezdine.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import restful.api.ezdine.entity.CategoryEntity;
+
+public class CategoryNaturalIdRepositoryImpl implements CategoryNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // resolved through the natural-id cache, unlike the derived findByName query
+    @Override
+    public Optional<CategoryEntity> findByNaturalName(String name) {
+        return entityManager.unwrap(Session.class)
+                    .bySimpleNaturalId(CategoryEntity.class)
+                    .loadOptional(name);
+    }
+}
@@ -1,17 +1,33 @@
 package restful.api.ezdine.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import restful.api.ezdine.entity.CategoryEntity;
 import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.CategoryResponse;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<CategoryEntity, Integer>{
+public interface CategoryRepository extends JpaRepository<CategoryEntity, Integer>, CategoryNaturalIdRepository {
 
     Optional<CategoryEntity> findByName(String name);
 
     Optional<CategoryEntity> findFirstByUserEntityAndId(UserEntity user, Integer id);
+
+    // read straight into the response, the query cache keeps the rows themselves
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new restful.api.ezdine.model.CategoryResponse(c.id, c.name) from CategoryEntity c order by c.id")
+    List<CategoryResponse> findAllResponses();
+
+    @Query("select new restful.api.ezdine.model.CategoryResponse(c.id, c.name) from CategoryEntity c " +
+            "where c.userEntity.id = :userId and c.id = :id")
+    Optional<CategoryResponse> findResponseByUserIdAndId(@Param("userId") Integer userId, @Param("id") Integer id);
 }
@@ -0,0 +1,11 @@
+package restful.api.ezdine.repository;
+
+import java.util.Optional;
+
+import restful.api.ezdine.entity.FoodEntity;
+
+public interface FoodNaturalIdRepository {
+
+    Optional<FoodEntity> findByNaturalCode(String code);
+
+}
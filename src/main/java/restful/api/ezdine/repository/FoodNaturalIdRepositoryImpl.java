@@ -0,0 +1,23 @@
+package restful.api.ezdine.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import restful.api.ezdine.entity.FoodEntity;
+
+public class FoodNaturalIdRepositoryImpl implements FoodNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // resolved by natural id, so a repeat within the session never goes back to the database
+    @Override
+    public Optional<FoodEntity> findByNaturalCode(String code) {
+        return entityManager.unwrap(Session.class)
+                    .bySimpleNaturalId(FoodEntity.class)
+                    .loadOptional(code);
+    }
+}
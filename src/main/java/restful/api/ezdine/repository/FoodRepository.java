@@ -1,19 +1,53 @@
 package restful.api.ezdine.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import restful.api.ezdine.entity.CategoryEntity;
 import restful.api.ezdine.entity.FoodEntity;
+import restful.api.ezdine.model.FoodResponse;
 
 @Repository
-public interface FoodRepository extends JpaRepository<FoodEntity, Integer>{
+public interface FoodRepository extends JpaRepository<FoodEntity, Integer>, FoodNaturalIdRepository {
 
     Optional<FoodEntity> findFirstById(Integer id);
 
     Optional<FoodEntity> findFirstByCategoryEntityAndId(CategoryEntity category, Integer id);
 
     Optional<FoodEntity> findByName(String name);
+
+    // read straight into the response; not query cached, stock writes would evict it constantly
+    @Query("select new restful.api.ezdine.model.FoodResponse(f.id, c.id, c.name, f.code, f.name, f.description, f.price, f.stock, f.photoUrl) " +
+            "from FoodEntity f join f.categoryEntity c order by f.id")
+    List<FoodResponse> findAllResponses();
+
+    @Query("select f.price from FoodEntity f where f.id = :id")
+    Optional<Double> findPriceById(@Param("id") Integer id);
+
+    // stock counters leave the version alone, so order traffic never fails an admin edit's version check;
+    // FoodEntity's dynamic update keeps that edit from writing back a stale stock in turn
+    @Transactional
+    @Modifying
+    @Query("update FoodEntity f set f.stock = f.stock - :quantity where f.id = :id and f.stock >= :quantity")
+    int reserveStock(@Param("id") Integer id, @Param("quantity") Integer quantity);
+
+    @Transactional
+    @Modifying
+    @Query("update FoodEntity f set f.stock = f.stock + :quantity where f.id = :id")
+    int releaseStock(@Param("id") Integer id, @Param("quantity") Integer quantity);
+
+    @Transactional
+    @Modifying
+    @Query("update FoodEntity f set f.stock = f.stock - :quantity where f.id = :id")
+    int deductStock(@Param("id") Integer id, @Param("quantity") Integer quantity);
+
+    @Query("select f.stock from FoodEntity f where f.id = :id")
+    Optional<Integer> findStockById(@Param("id") Integer id);
 }
@@ -0,0 +1,38 @@
+package restful.api.ezdine.repository;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import restful.api.ezdine.entity.IdempotencyKeyEntity;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, Integer> {
+
+    Optional<IdempotencyKeyEntity> findFirstByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    // waits for a concurrent claim of the same key to finish, then inserts nothing if it committed
+    @Modifying
+    @Query(value = "insert into idempotency_keys (username, idempotency_key, route, request_hash, created_at, expired_at) " +
+                    "values (:username, :key, :route, :requestHash, :createdAt, :expiredAt) " +
+                    "on conflict (username, idempotency_key) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("username") String username, @Param("key") String key, @Param("route") String route,
+                        @Param("requestHash") String requestHash, @Param("createdAt") Date createdAt,
+                        @Param("expiredAt") Date expiredAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.username = :username and k.idempotencyKey = :key and k.expiredAt < :now")
+    int deleteExpiredKey(@Param("username") String username, @Param("key") String key, @Param("now") Date now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKeyEntity k where k.expiredAt < :now")
+    int deleteExpired(@Param("now") Date now);
+
+}
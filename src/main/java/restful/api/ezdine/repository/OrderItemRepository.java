@@ -1,17 +1,39 @@
 package restful.api.ezdine.repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import restful.api.ezdine.entity.OrderEntity;
 import restful.api.ezdine.entity.OrderItemEntity;
+import restful.api.ezdine.model.OrderItemResponse;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Integer>{
 
+    // item writes reprice, restock and roll up by food, so the food comes along
+    @EntityGraph(attributePaths = "foodEntity")
     Optional<OrderItemEntity> findFirstByOrderEntityAndId(OrderEntity orderEntity, Integer id);
 
     List<OrderItemEntity> findAllByOrderEntity(OrderEntity orderEntity);
 
+    @Query("select new restful.api.ezdine.model.OrderItemResponse(i.id, i.orderEntity.id, f.id, f.name, i.quantity, i.subTotal) " +
+            "from OrderItemEntity i join i.foodEntity f " +
+            "where i.orderEntity.id in :orderIds order by i.orderEntity.id, i.id")
+    List<OrderItemResponse> findResponsesByOrderIds(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Query("select new restful.api.ezdine.model.OrderItemResponse(i.id, i.orderEntity.id, f.id, f.name, i.quantity, i.subTotal) " +
+            "from OrderItemEntity i join i.foodEntity f " +
+            "where i.orderEntity.id = :orderId order by i.id")
+    List<OrderItemResponse> findResponsesByOrderId(@Param("orderId") Integer orderId);
+
+    @Query("select new restful.api.ezdine.model.OrderItemResponse(i.id, i.orderEntity.id, f.id, f.name, i.quantity, i.subTotal) " +
+            "from OrderItemEntity i join i.foodEntity f " +
+            "where i.orderEntity.id = :orderId and i.id = :id")
+    Optional<OrderItemResponse> findResponseByOrderIdAndId(@Param("orderId") Integer orderId, @Param("id") Integer id);
+
 }
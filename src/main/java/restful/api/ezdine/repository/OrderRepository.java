@@ -1,21 +1,42 @@
 package restful.api.ezdine.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
 import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.OrderResponse;
 
 @Repository
-public interface OrderRepository extends JpaRepository<OrderEntity, Integer>{
+public interface OrderRepository extends JpaRepository<OrderEntity, Integer>, JpaSpecificationExecutor<OrderEntity>, OrderResponseRepository {
 
-    Optional<OrderEntity> findFirstByOrderId(String orderId);
+    Optional<OrderEntity> findFirstByOrderId(UUID orderId);
+
+    List<OrderEntity> findAllByStatusIn(Collection<OrderStatus> statuses);
 
     Optional<OrderEntity> findFirstByUserEntityAndId(UserEntity user, Integer id);
 
-    List<OrderEntity> findAllByUserEntity(UserEntity user);
+    boolean existsByUserEntityAndId(UserEntity user, Integer id);
+
+    @Query("select new restful.api.ezdine.model.OrderResponse(o.id, o.orderId, o.placedAt, o.subTotal, o.tax, o.totalPrice, o.status) " +
+            "from OrderEntity o where o.userEntity.id = :userId and o.id = :id")
+    Optional<OrderResponse> findResponseByUserIdAndId(@Param("userId") Integer userId, @Param("id") Integer id);
+
+    @Query("select new restful.api.ezdine.model.OrderResponse(o.id, o.orderId, o.placedAt, o.subTotal, o.tax, o.totalPrice, o.status) " +
+            "from OrderEntity o where o.userEntity.id = :userId and o.orderId = :orderId")
+    Optional<OrderResponse> findResponseByUserIdAndOrderId(@Param("userId") Integer userId, @Param("orderId") UUID orderId);
+
+    // planner statistics instead of count(*), refreshed by autovacuum/analyze
+    @Query(value = "select cast(greatest(reltuples, 0) as bigint) from pg_class where relname = 'orders'", nativeQuery = true)
+    Long estimateCount();
 
 }
@@ -0,0 +1,14 @@
+package restful.api.ezdine.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.model.OrderResponse;
+
+public interface OrderResponseRepository {
+
+    List<OrderResponse> findResponses(Specification<OrderEntity> spec, Integer limit);
+
+}
@@ -0,0 +1,45 @@
+package restful.api.ezdine.repository;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.model.OrderResponse;
+
+public class OrderResponseRepositoryImpl implements OrderResponseRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // newest first, selecting only the response columns so no order is ever managed
+    @Override
+    public List<OrderResponse> findResponses(Specification<OrderEntity> spec, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderResponse> query = cb.createQuery(OrderResponse.class);
+        Root<OrderEntity> root = query.from(OrderEntity.class);
+
+        query.select(cb.construct(OrderResponse.class,
+                    root.get("id"), root.get("orderId"), root.get("placedAt"), root.get("subTotal"),
+                    root.get("tax"), root.get("totalPrice"), root.get("status")));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+
+        if (Objects.nonNull(predicate)) {
+            query.where(predicate);
+        }
+
+        query.orderBy(cb.desc(root.get("placedAt")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                    .setMaxResults(limit)
+                    .getResultList();
+    }
+}
@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import restful.api.ezdine.entity.RoleEntity;
 
 @Repository
-public interface RoleRepository extends JpaRepository<RoleEntity, Integer> {
+public interface RoleRepository extends JpaRepository<RoleEntity, Long> {
 
     Optional<RoleEntity> findByName(String name);
     
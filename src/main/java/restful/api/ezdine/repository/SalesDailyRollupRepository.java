@@ -0,0 +1,26 @@
+package restful.api.ezdine.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import restful.api.ezdine.entity.SalesDailyRollupEntity;
+import restful.api.ezdine.model.SalesReportResponse;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollupEntity, Integer> {
+
+    // names are looked up in the small dimension tables; no orders or order_items rows are read
+    @Query("select new restful.api.ezdine.model.SalesReportResponse(r.day, r.categoryId, c.name, r.foodId, f.name, r.quantity, r.revenue) " +
+            "from SalesDailyRollupEntity r " +
+            "left join CategoryEntity c on c.id = r.categoryId " +
+            "left join FoodEntity f on f.id = r.foodId " +
+            "where r.day between :from and :to " +
+            "order by r.day, r.categoryId, r.foodId")
+    List<SalesReportResponse> findReport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+}
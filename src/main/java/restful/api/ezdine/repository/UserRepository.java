@@ -1,17 +1,74 @@
 package restful.api.ezdine.repository;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.UserSummary;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Integer>{
 
     Optional<UserEntity> findByEmail(String email);
 
+    // for responses that list the user's roles, fetched in the same select
+    @EntityGraph(attributePaths = "roles")
+    Optional<UserEntity> findWithRolesByEmail(String email);
+
     Optional<UserEntity> findFirstByToken(String token);
 
+    @Query("select u.id from UserEntity u where u.email = :email")
+    Optional<Integer> findIdByEmail(@Param("email") String email);
+
+    @Query("select u.tokenExpiredAt from UserEntity u where u.token = :token")
+    Optional<Long> findTokenExpiredAtByToken(@Param("token") String token);
+
+    @Query("select u.id as id, u.email as email, u.password as password, u.tokenExpiredAt as tokenExpiredAt, r.id as roleId " +
+            "from UserEntity u left join u.roles r where u.email = :email")
+    List<UserRoleRow> findRoleRowsByEmail(@Param("email") String email);
+
+    // a proxy for ownership checks and associations, the users row itself is never selected
+    default Optional<UserEntity> findReferenceByEmail(String email) {
+        return findIdByEmail(email).map(this::getReferenceById);
+    }
+
+    // one row per role id folded into a summary, without loading the profile or the roles table
+    default Optional<UserSummary> findSummaryByEmail(String email) {
+        List<UserRoleRow> rows = findRoleRowsByEmail(email);
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        UserRoleRow first = rows.get(0);
+
+        return Optional.of(UserSummary.builder()
+                .id(first.getId())
+                .email(first.getEmail())
+                .password(first.getPassword())
+                .tokenExpiredAt(first.getTokenExpiredAt())
+                .roleIds(rows.stream().map(UserRoleRow::getRoleId).filter(Objects::nonNull).toList())
+                .build());
+    }
+
+    interface UserRoleRow {
+
+        Integer getId();
+
+        String getEmail();
+
+        String getPassword();
+
+        Long getTokenExpiredAt();
+
+        Long getRoleId();
+    }
+
 }
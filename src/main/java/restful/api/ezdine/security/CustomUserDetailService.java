@@ -1,19 +1,12 @@
 package restful.api.ezdine.security;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
-
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import restful.api.ezdine.entity.RoleEntity;
-import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.UserSummary;
 import restful.api.ezdine.repository.UserRepository;
 
 @Service
@@ -21,19 +14,18 @@ public class CustomUserDetailService implements UserDetailsService {
 
     private UserRepository userRepository;
 
-    public CustomUserDetailService(UserRepository userRepository) {
+    private RoleRegistry roleRegistry;
+
+    public CustomUserDetailService(UserRepository userRepository, RoleRegistry roleRegistry) {
         this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("Username not found"));
+        UserSummary user = userRepository.findSummaryByEmail(email).orElseThrow(() -> new UsernameNotFoundException("Username not found"));
         
-        return new User(user.getEmail(), user.getPassword(), mapRolesToAuthorities(user.getRoles()));
-    }
-
-    private Collection<GrantedAuthority> mapRolesToAuthorities(List<RoleEntity> roles) {
-        return roles.stream().map(role -> new SimpleGrantedAuthority(role.getName())).collect(Collectors.toList());
+        return new User(user.getEmail(), user.getPassword(), roleRegistry.authorities(user.getRoleIds()));
     }
 
 }
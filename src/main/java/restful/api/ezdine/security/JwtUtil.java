@@ -16,7 +16,6 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
-import restful.api.ezdine.entity.UserEntity;
 import restful.api.ezdine.repository.UserRepository;
 
 @Component
@@ -76,11 +75,11 @@ public class JwtUtil {
     }    
 
     public Boolean isTokenExpired(String token) {
-        UserEntity user = userRepository.findFirstByToken(token)
+        Long tokenExpiredAt = userRepository.findTokenExpiredAtByToken(token)
                                         .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized access")
         );
 
-        if (user.getTokenExpiredAt() < System.currentTimeMillis()) {
+        if (tokenExpiredAt < System.currentTimeMillis()) {
             return true;
         }
 
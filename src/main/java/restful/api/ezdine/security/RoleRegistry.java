@@ -0,0 +1,100 @@
+package restful.api.ezdine.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.repository.RoleRepository;
+
+/**
+ * Roles read once at startup into immutable id and name maps, with one shared
+ * GrantedAuthority per role. Requests resolve roles from here instead of the
+ * roles table; a changed roles table is picked up only through refresh().
+ */
+@Component
+@Slf4j
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    // swapped whole on refresh, so readers always see one consistent set of roles
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of());
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @PostConstruct
+    public List<String> refresh() {
+        Map<String, Long> idsByName = new HashMap<>();
+        Map<Long, String> namesById = new HashMap<>();
+        Map<Long, List<GrantedAuthority>> authoritiesById = new HashMap<>();
+
+        for (RoleEntity role : roleRepository.findAll()) {
+            idsByName.put(role.getName(), role.getId());
+            namesById.put(role.getId(), role.getName());
+            authoritiesById.put(role.getId(), List.of(new SimpleGrantedAuthority(role.getName())));
+        }
+
+        snapshot = new Snapshot(Map.copyOf(idsByName), Map.copyOf(namesById), Map.copyOf(authoritiesById));
+
+        log.info("Role registry loaded {} roles", namesById.size());
+
+        return names();
+    }
+
+    public List<String> names() {
+        return snapshot.namesById().values().stream().sorted().toList();
+    }
+
+    public Optional<String> name(Long roleId) {
+        return Optional.ofNullable(snapshot.namesById().get(roleId));
+    }
+
+    // a detached role carrying id and name, enough to link a user without selecting the row
+    public Optional<RoleEntity> role(String name) {
+        Long id = snapshot.idsByName().get(name);
+
+        if (Objects.isNull(id)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(RoleEntity.builder().id(id).name(name).build());
+    }
+
+    public List<GrantedAuthority> authorities(Collection<Long> roleIds) {
+        Snapshot current = snapshot;
+
+        // nearly every user holds one role, whose shared singleton list is handed out as is
+        if (roleIds.size() == 1) {
+            return current.authoritiesById().getOrDefault(roleIds.iterator().next(), List.of());
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(roleIds.size());
+
+        for (Long roleId : roleIds) {
+            List<GrantedAuthority> authority = current.authoritiesById().get(roleId);
+
+            if (Objects.nonNull(authority)) {
+                authorities.addAll(authority);
+            }
+        }
+
+        return authorities;
+    }
+
+    private record Snapshot(Map<String, Long> idsByName, Map<Long, String> namesById,
+                            Map<Long, List<GrantedAuthority>> authoritiesById) {
+    }
+}
@@ -42,10 +42,10 @@ public class CategoryService {
     public CategoryResponse register(Authentication authentication, RegisterCategoryRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        if (categoryRepository.findByName(request.getName()).isPresent()) {
+        if (categoryRepository.findByNaturalName(request.getName()).isPresent()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category already registered");
         }
 
@@ -67,20 +67,16 @@ public class CategoryService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        CategoryEntity category = categoryRepository.findFirstByUserEntityAndId(user, categoryId)
+        return categoryRepository.findResponseByUserIdAndId(user.getId(), categoryId)
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
-
-        return ResponseMapper.ToCategoryResponseMapper(category);
     }
 
     @Transactional(readOnly = true)
     public List<CategoryResponse> list() {
-        List<CategoryEntity> categories = categoryRepository.findAll();
-
-        return ResponseMapper.ToCategoryResponseListMapper(categories);
+        return categoryRepository.findAllResponses();
     }
 
     @Transactional
@@ -94,7 +90,7 @@ public class CategoryService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         CategoryEntity category = categoryRepository.findFirstByUserEntityAndId(user, categoryId)
@@ -119,7 +115,7 @@ public class CategoryService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         CategoryEntity category = categoryRepository.findFirstByUserEntityAndId(user, categoryId)
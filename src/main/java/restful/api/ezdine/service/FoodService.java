@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import restful.api.ezdine.aspect.RetryOnConflict;
 import restful.api.ezdine.entity.CategoryEntity;
 import restful.api.ezdine.entity.FoodEntity;
 import restful.api.ezdine.entity.UserEntity;
@@ -36,12 +37,17 @@ public class FoodService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private PricingService pricingService;
+
     public FoodService(UserRepository userRepository, CategoryRepository categoryRepository,
-            FoodRepository foodRepository, ValidationService validationService) {
+            FoodRepository foodRepository, ValidationService validationService,
+            PricingService pricingService) {
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.foodRepository = foodRepository;
         this.validationService = validationService;
+        this.pricingService = pricingService;
     }
 
     @Transactional
@@ -56,13 +62,14 @@ public class FoodService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         CategoryEntity category = categoryRepository.findFirstByUserEntityAndId(user, categoryId)
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
 
-        if (foodRepository.findByName(request.getName()).isPresent()) {
+        if (foodRepository.findByNaturalCode(request.getCode()).isPresent()
+                || foodRepository.findByName(request.getName()).isPresent()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Food already registered");
         }
 
@@ -93,25 +100,20 @@ public class FoodService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        CategoryEntity category = categoryRepository.findFirstByUserEntityAndId(user, categoryId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
-
-        FoodEntity food = foodRepository.findFirstByCategoryEntityAndId(category, foodId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Food not found"));
+        FoodEntity food = findOwnedFood(user, categoryId, foodId);
 
         return ResponseMapper.ToFoodResponseMapper(food);
     }
 
     @Transactional(readOnly = true)
     public List<FoodResponse> list() {
-        List<FoodEntity> foods = foodRepository.findAll();
-
-        return ResponseMapper.ToFoodResponseListMapper(foods);
+        return foodRepository.findAllResponses();
     }
 
+    @RetryOnConflict
     @Transactional
     public FoodResponse update(Authentication authentication, 
                                 UpdateFoodRequest request, 
@@ -129,14 +131,10 @@ public class FoodService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        CategoryEntity category = categoryRepository.findFirstByUserEntityAndId(user, categoryId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
-
-        FoodEntity food = foodRepository.findFirstByCategoryEntityAndId(category, foodId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Food not found"));
+        FoodEntity food = findOwnedFood(user, categoryId, foodId);
 
         if (Objects.nonNull(request.getNewCategoryId())) {
             CategoryEntity newCategory = categoryRepository.findFirstByUserEntityAndId(user, newCategoryId)
@@ -170,6 +168,7 @@ public class FoodService {
         }
 
         foodRepository.save(food);
+        pricingService.evict(food.getId());
 
         return ResponseMapper.ToFoodResponseMapper(food);
 
@@ -187,20 +186,28 @@ public class FoodService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        CategoryEntity category = categoryRepository.findFirstByUserEntityAndId(user, categoryId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
-
-        FoodEntity food = foodRepository.findFirstByCategoryEntityAndId(category, foodId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Food not found"));
+        FoodEntity food = findOwnedFood(user, categoryId, foodId);
 
         try {
             foodRepository.delete(food);
+            pricingService.evict(food.getId());
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete food failed");
         } 
     }
 
+    // by id and checked in memory, so the category can be answered from the second-level cache
+    private FoodEntity findOwnedFood(UserEntity user, Integer categoryId, Integer foodId) {
+        CategoryEntity category = categoryRepository.findById(categoryId)
+                            .filter(p -> p.getUserEntity().getId().equals(user.getId()))
+                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
+
+        return foodRepository.findById(foodId)
+                            .filter(p -> p.getCategoryEntity().getId().equals(category.getId()))
+                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Food not found"));
+    }
+
 }
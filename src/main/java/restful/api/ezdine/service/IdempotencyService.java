@@ -0,0 +1,171 @@
+package restful.api.ezdine.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import restful.api.ezdine.aspect.RetryOnConflict;
+import restful.api.ezdine.entity.IdempotencyKeyEntity;
+import restful.api.ezdine.repository.IdempotencyKeyRepository;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // through the proxy, so the keyed run gets its own retried transaction
+    @Lazy
+    @Autowired
+    private IdempotencyService self;
+
+    @Value("${ezdine.idempotency.ttl-ms:86400000}")
+    private Long ttlMs;
+
+    private final Map<String, StoredResponse> cache;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper,
+            @Value("${ezdine.idempotency.cache-size:10000}") Integer cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, StoredResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Runs the action once per (user, key) and replays its stored response for
+     * every retry until the key expires. Without a key the action simply runs.
+     * A key reused with a different route or request body is rejected.
+     */
+    public <T> T execute(Authentication authentication, String key, String route, Object request,
+                        Class<T> type, Supplier<T> action) {
+        if (!StringUtils.hasText(key)) {
+            return action.get();
+        }
+
+        if (key.length() > 255) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency key too long");
+        }
+
+        String username = authentication.getName();
+        String cacheKey = username + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse cached = cache.get(cacheKey);
+
+        if (Objects.nonNull(cached) && cached.expiredAt() > System.currentTimeMillis()) {
+            return replay(cached, route, requestHash, type);
+        }
+
+        IdempotencyKeyEntity claim = self.claimAndRun(username, key, route, requestHash, action);
+
+        StoredResponse stored = new StoredResponse(claim.getRoute(), claim.getRequestHash(),
+                                        claim.getResponse(), claim.getExpiredAt().getTime());
+        cache.put(cacheKey, stored);
+
+        return replay(stored, route, requestHash, type);
+    }
+
+    // the claim, the action and its stored response commit together, so a crash leaves nothing behind
+    // and a retry runs afresh; a duplicate arriving meanwhile waits on the key's unique index, then replays
+    @RetryOnConflict
+    @Transactional
+    public IdempotencyKeyEntity claimAndRun(String username, String key, String route, String requestHash, Supplier<?> action) {
+        Date now = new Date();
+        idempotencyKeyRepository.deleteExpiredKey(username, key, now);
+
+        int claimed = idempotencyKeyRepository.insertIfAbsent(username, key, route, requestHash,
+                                        now, new Date(now.getTime() + ttlMs));
+
+        IdempotencyKeyEntity claim = idempotencyKeyRepository.findFirstByUsernameAndIdempotencyKey(username, key)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency key is being processed"));
+
+        if (claimed == 0) {
+            if (Objects.isNull(claim.getResponse())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency key is being processed");
+            }
+
+            return claim;
+        }
+
+        claim.setResponse(write(action.get()));
+
+        return claim;
+    }
+
+    @Scheduled(fixedDelayString = "${ezdine.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = idempotencyKeyRepository.deleteExpired(new Date());
+
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private <T> T replay(StoredResponse stored, String route, String requestHash, Class<T> type) {
+        // keys stored before request hashing carry no hash and are matched on the route alone
+        if (!stored.route().equals(route)
+                || (Objects.nonNull(stored.requestHash()) && !stored.requestHash().equals(requestHash))) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency key already used for another request");
+        }
+
+        try {
+            return objectMapper.readValue(stored.response(), type);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Stored response unreadable");
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Response not storable");
+        }
+    }
+
+    // SHA-256 of the request as the server read it, so whitespace and field order never matter
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Request not hashable");
+        }
+    }
+
+    private record StoredResponse(String route, String requestHash, String response, long expiredAt) {
+    }
+}
@@ -0,0 +1,249 @@
+package restful.api.ezdine.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
+import restful.api.ezdine.model.KitchenTicketResponse;
+import restful.api.ezdine.model.OrderChangedEvent;
+import restful.api.ezdine.model.OrderItemResponse;
+import restful.api.ezdine.model.OrderStatusEvent;
+import restful.api.ezdine.repository.OrderItemRepository;
+import restful.api.ezdine.repository.OrderRepository;
+
+/**
+ * Open kitchen tickets held in memory, ordered by priority and then placement
+ * time. Reads walk a skip list without locking; every change is applied by one
+ * writer thread after the originating transaction committed, then pushed to
+ * kitchen screens subscribed to the stream.
+ */
+@Component
+@Slf4j
+public class KitchenQueue {
+
+    public static final int MAX_SNAPSHOT = 500;
+
+    private static final int REBUILD_CHUNK = 500;
+
+    private static final Comparator<TicketKey> ORDERING = Comparator
+            .comparingInt(TicketKey::priority).reversed()
+            .thenComparing(TicketKey::placedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(TicketKey::id);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Value("${ezdine.kitchen.stream-timeout-ms:1800000}")
+    private Long streamTimeoutMs;
+
+    private final ConcurrentSkipListSet<TicketKey> queue = new ConcurrentSkipListSet<>(ORDERING);
+
+    private final Map<Integer, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private final Set<SseEmitter> screens = new CopyOnWriteArraySet<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "kitchen-queue-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public KitchenQueue(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+
+        Gauge.builder("ezdine.kitchen.queue.size", tickets, Map::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writer.execute(() -> {
+            List<OrderEntity> open = orderRepository.findAllByStatusIn(OrderStatus.kitchenStatuses());
+
+            for (int from = 0; from < open.size(); from += REBUILD_CHUNK) {
+                List<OrderEntity> chunk = open.subList(from, Math.min(from + REBUILD_CHUNK, open.size()));
+                Map<Integer, List<OrderItemResponse>> items = itemsByOrder(chunk.stream().map(OrderEntity::getId).toList());
+
+                chunk.forEach(order -> put(toTicket(order, items.getOrDefault(order.getId(), new ArrayList<>()))));
+            }
+
+            log.info("Kitchen queue rebuilt with {} open orders", tickets.size());
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(OrderStatusEvent event) {
+        writer.execute(() -> refresh(event.getId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        // item edits only matter to orders the kitchen already holds
+        if (tickets.containsKey(event.getId())) {
+            writer.execute(() -> refresh(event.getId()));
+        }
+    }
+
+    public List<KitchenTicketResponse> snapshot(Integer limit) {
+        if (limit < 1 || limit > MAX_SNAPSHOT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad limit");
+        }
+
+        List<KitchenTicketResponse> response = new ArrayList<>();
+
+        for (TicketKey key : queue) {
+            if (response.size() >= limit) {
+                break;
+            }
+
+            Ticket ticket = tickets.get(key.id());
+
+            // skip keys a concurrent re-prioritisation has already superseded
+            if (Objects.nonNull(ticket) && ticket.key().equals(key)) {
+                response.add(ticket.response());
+            }
+        }
+
+        return response;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        screens.add(emitter);
+
+        emitter.onCompletion(() -> screens.remove(emitter));
+        emitter.onTimeout(() -> screens.remove(emitter));
+        emitter.onError(e -> screens.remove(emitter));
+
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${ezdine.orders.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (screens.isEmpty()) {
+            return;
+        }
+
+        writer.execute(() -> push(() -> SseEmitter.event().comment("keepalive")));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+
+        screens.forEach(SseEmitter::complete);
+        screens.clear();
+    }
+
+    private void refresh(Integer orderId) {
+        Optional<OrderEntity> order = orderRepository.findById(orderId)
+                                        .filter(p -> Objects.nonNull(p.getStatus()) && p.getStatus().isInKitchen());
+
+        if (order.isEmpty()) {
+            if (Objects.nonNull(remove(orderId))) {
+                push(() -> SseEmitter.event().name("remove").data(orderId));
+            }
+            return;
+        }
+
+        List<OrderItemResponse> items = itemsByOrder(List.of(orderId)).getOrDefault(orderId, new ArrayList<>());
+        KitchenTicketResponse response = toTicket(order.get(), items);
+
+        put(response);
+        push(() -> SseEmitter.event().name("upsert").data(response));
+    }
+
+    private void put(KitchenTicketResponse response) {
+        TicketKey key = new TicketKey(response.getPriority(), response.getPlacedAt(), response.getId());
+        Ticket previous = tickets.put(response.getId(), new Ticket(key, response));
+
+        // add before remove, so a reader never finds the ticket missing from the walk
+        queue.add(key);
+
+        if (Objects.nonNull(previous) && !previous.key().equals(key)) {
+            queue.remove(previous.key());
+        }
+    }
+
+    private Ticket remove(Integer orderId) {
+        Ticket previous = tickets.remove(orderId);
+
+        if (Objects.nonNull(previous)) {
+            queue.remove(previous.key());
+        }
+
+        return previous;
+    }
+
+    // a fresh builder per screen, builders are consumed by send
+    private void push(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (SseEmitter screen : screens) {
+            try {
+                screen.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                screens.remove(screen);
+            }
+        }
+    }
+
+    private Map<Integer, List<OrderItemResponse>> itemsByOrder(List<Integer> orderIds) {
+        return orderItemRepository.findResponsesByOrderIds(orderIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(OrderItemResponse::getOrderId));
+    }
+
+    private KitchenTicketResponse toTicket(OrderEntity order, List<OrderItemResponse> items) {
+        return KitchenTicketResponse.builder()
+                .id(order.getId())
+                .orderId(order.getOrderId())
+                .status(Objects.nonNull(order.getStatus()) ? order.getStatus().getLabel() : null)
+                .priority(Objects.nonNull(order.getPriority()) ? order.getPriority() : 0)
+                .placedAt(order.getPlacedAt())
+                .items(items)
+                .build();
+    }
+
+    private record TicketKey(int priority, Instant placedAt, int id) {
+    }
+
+    private record Ticket(TicketKey key, KitchenTicketResponse response) {
+    }
+}
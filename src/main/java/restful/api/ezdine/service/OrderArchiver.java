@@ -0,0 +1,115 @@
+package restful.api.ezdine.service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import restful.api.ezdine.entity.OrderStatus;
+
+/**
+ * Moves closed orders older than the retention window, with their items, out
+ * of the hot orders and order_items tables into orders_archive and
+ * order_items_archive. Keeping the hot tables to recent history bounds the
+ * per-user lookups and their indexes; the sales rollup keeps plain ids, so
+ * reports are unaffected by what gets archived. The order endpoints and the
+ * export read the hot tables only, so archived orders disappear from them;
+ * the archiver is therefore off unless explicitly enabled.
+ *
+ * <p>Only rows labelled completed or cancelled qualify. An order whose legacy
+ * status label maps to no known status is never archived and stays in the hot
+ * tables until its label is corrected by hand.
+ */
+@Component
+@Slf4j
+public class OrderArchiver {
+
+    private static final String ORDER_COLUMNS = "id, order_id, placed_at, subtotal, tax, total_price, status, remark, "
+            + "priority, version, created_at, updated_at, user_id";
+
+    private static final String ITEM_COLUMNS = "id, quantity, sub_total, version, created_at, updated_at, food_id, order_id";
+
+    // skip locked, so a batch never waits on an order someone is still editing
+    private static final String SELECT_EXPIRED = "select id from orders "
+            + "where placed_at < ? and status in (?, ?) "
+            + "order by placed_at, id limit ? for update skip locked";
+
+    private static final String MOVE_ITEMS = "with moved as (delete from order_items where order_id = any(?) returning " + ITEM_COLUMNS + ") "
+            + "insert into order_items_archive (" + ITEM_COLUMNS + ") select " + ITEM_COLUMNS + " from moved";
+
+    private static final String MOVE_ORDERS = "with moved as (delete from orders where id = any(?) returning " + ORDER_COLUMNS + ") "
+            + "insert into orders_archive (" + ORDER_COLUMNS + ") select " + ORDER_COLUMNS + " from moved";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ezdine.orders.archive.enabled:false}")
+    private Boolean enabled;
+
+    @Value("${ezdine.orders.archive.retention-days:365}")
+    private Integer retentionDays;
+
+    @Value("${ezdine.orders.archive.batch-size:5000}")
+    private Integer batchSize;
+
+    public OrderArchiver(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${ezdine.orders.archive.interval-ms:86400000}",
+                fixedDelayString = "${ezdine.orders.archive.interval-ms:86400000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        int total = 0;
+        int moved;
+
+        // one short transaction per batch, so the hot tables are never locked for the whole run
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} orders placed before {}", total, cutoff);
+        }
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<Integer> ids = jdbcTemplate.queryForList(SELECT_EXPIRED, Integer.class,
+                                Timestamp.from(cutoff), OrderStatus.COMPLETED.getLabel(),
+                                OrderStatus.CANCELLED.getLabel(), batchSize);
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // items first, the foreign key still points at the live order rows
+        move(MOVE_ITEMS, ids);
+
+        return move(MOVE_ORDERS, ids);
+    }
+
+    private int move(String sql, List<Integer> ids) {
+        return jdbcTemplate.update(con -> {
+            Array array = con.createArrayOf("integer", ids.toArray());
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, array);
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package restful.api.ezdine.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Keyset position of an order page: the sort timestamp and id of the last row
+ * returned, encoded as an opaque url-safe token.
+ */
+public record OrderCursor(Instant timestamp, Integer id) {
+
+    public String encode() {
+        String raw = timestamp.toString() + "|" + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+
+            return new OrderCursor(Instant.parse(parts[0]), Integer.parseInt(parts[1]));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad cursor");
+        }
+    }
+}
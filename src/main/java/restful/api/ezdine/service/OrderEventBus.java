@@ -0,0 +1,131 @@
+package restful.api.ezdine.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.ezdine.model.OrderStatusEvent;
+
+/**
+ * Fans committed order status changes out to SSE subscribers. Subscribers are
+ * just parked emitters keyed by order id; a single dispatcher thread does all
+ * the writing, so idle connections hold no thread and no polling query.
+ */
+@Component
+@Slf4j
+public class OrderEventBus {
+
+    @Value("${ezdine.orders.events.timeout-ms:1800000}")
+    private Long timeoutMs;
+
+    private final Map<Integer, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "order-event-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderEventBus(MeterRegistry meterRegistry) {
+        Gauge.builder("ezdine.orders.events.subscribers", subscribers,
+                p -> p.values().stream().mapToInt(Set::size).sum()).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Integer orderId, OrderStatusEvent current) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        subscribers.computeIfAbsent(orderId, p -> new CopyOnWriteArraySet<>()).add(emitter);
+
+        emitter.onCompletion(() -> unsubscribe(orderId, emitter));
+        emitter.onTimeout(() -> unsubscribe(orderId, emitter));
+        emitter.onError(e -> unsubscribe(orderId, emitter));
+
+        // the current status first, so a client never misses a change made before it subscribed
+        dispatcher.execute(() -> send(orderId, emitter, current));
+
+        return emitter;
+    }
+
+    // only committed changes reach clients; a rolled back update publishes nothing
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(OrderStatusEvent event) {
+        if (!subscribers.containsKey(event.getId())) {
+            return;
+        }
+
+        dispatcher.execute(() -> {
+            Set<SseEmitter> emitters = subscribers.get(event.getId());
+
+            if (Objects.isNull(emitters)) {
+                return;
+            }
+
+            for (SseEmitter emitter : emitters) {
+                send(event.getId(), emitter, event);
+            }
+        });
+    }
+
+    // a comment line every so often lets proxies keep the connection and surfaces dead clients
+    @Scheduled(fixedDelayString = "${ezdine.orders.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        dispatcher.execute(() -> subscribers.forEach((orderId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(orderId, emitter);
+                }
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    private void send(Integer orderId, SseEmitter emitter, OrderStatusEvent event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("status")
+                    .id(event.getChangedAt().toString())
+                    .data(event));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping order {} subscriber: {}", orderId, e.getMessage());
+            unsubscribe(orderId, emitter);
+        }
+    }
+
+    private void unsubscribe(Integer orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package restful.api.ezdine.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Accounting export of orders with their items. One forward-only join is read
+ * through a server-side cursor and each row is written to the response as it
+ * arrives, so memory use does not depend on how many rows the range holds.
+ */
+@Service
+public class OrderExportService {
+
+    public static final String HEADER = "order_id,order_ref,placed_at,status,order_subtotal,tax,total_price,"
+            + "item_id,food_code,food_name,quantity,item_subtotal";
+
+    private static final String SELECT_EXPORT = "select o.id, o.order_id, o.placed_at, o.status, o.subtotal, o.tax, o.total_price, "
+            + "i.id as item_id, f.code, f.name, i.quantity, i.sub_total "
+            + "from orders o "
+            + "left join order_items i on i.order_id = o.id "
+            + "left join foods f on f.id = i.food_id "
+            + "where o.placed_at >= ? and o.placed_at < ? "
+            + "order by o.placed_at, o.id, i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${ezdine.reports.export-fetch-size:1000}")
+    private Integer fetchSize;
+
+    @Value("${ezdine.reports.zone:UTC}")
+    private ZoneId zone;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        // the PostgreSQL driver only streams with a fetch size inside a transaction
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody export(String strFrom, String strTo) {
+        LocalDate from = null;
+        LocalDate to = null;
+
+        try {
+            from = LocalDate.parse(strFrom);
+            to = Objects.nonNull(strTo) ? LocalDate.parse(strTo) : from.plusMonths(1).minusDays(1);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
+        }
+
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad date range");
+        }
+
+        // inclusive calendar days in the report zone, queried as a half-open instant range
+        Instant start = from.atStartOfDay(zone).toInstant();
+        Instant end = to.plusDays(1).atStartOfDay(zone).toInstant();
+
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write('\n');
+
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_EXPORT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setTimestamp(1, Timestamp.from(start));
+                ps.setTimestamp(2, Timestamp.from(end));
+                return ps;
+            }, rs -> {
+                try {
+                    writeRow(writer, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+
+            writer.flush();
+        };
+    }
+
+    private void writeRow(Writer writer, ResultSet rs) throws SQLException, IOException {
+        Timestamp placedAt = rs.getTimestamp("placed_at");
+
+        writer.write(rs.getString("id"));
+        writer.write(',');
+        writer.write(rs.getString("order_id"));
+        writer.write(',');
+        writer.write(Objects.nonNull(placedAt) ? placedAt.toInstant().toString() : "");
+        writer.write(',');
+        writer.write(escape(rs.getString("status")));
+        writer.write(',');
+        writer.write(text(rs.getString("subtotal")));
+        writer.write(',');
+        writer.write(text(rs.getString("tax")));
+        writer.write(',');
+        writer.write(text(rs.getString("total_price")));
+        writer.write(',');
+        writer.write(text(rs.getString("item_id")));
+        writer.write(',');
+        writer.write(escape(rs.getString("code")));
+        writer.write(',');
+        writer.write(escape(rs.getString("name")));
+        writer.write(',');
+        writer.write(text(rs.getString("quantity")));
+        writer.write(',');
+        writer.write(text(rs.getString("sub_total")));
+        writer.write('\n');
+    }
+
+    private String text(String value) {
+        return Objects.nonNull(value) ? value : "";
+    }
+
+    // RFC 4180: quote fields holding a separator, quote or line break, doubling inner quotes
+    private String escape(String value) {
+        if (Objects.isNull(value)) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,259 @@
+package restful.api.ezdine.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.mapper.ResponseMapper;
+import restful.api.ezdine.model.OrderResponse;
+
+/**
+ * Optional write-behind path for order creation. Validated orders are queued in
+ * memory and a single writer persists whatever has accumulated as one JDBC batch
+ * per transaction, so the commit rate no longer caps order intake.
+ */
+@Component
+@Slf4j
+public class OrderIngestionQueue {
+
+    private static final String INSERT_ORDER = "insert into orders "
+            + "(order_id, placed_at, subtotal, tax, total_price, status, remark, priority, version, created_at, updated_at, user_id) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?)";
+
+    private static final String SELECT_IDS = "select id, order_id from orders where order_id in (:orderIds)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ezdine.orders.ingestion.enabled:false}")
+    private Boolean enabled;
+
+    @Value("${ezdine.orders.ingestion.batch-size:100}")
+    private Integer batchSize;
+
+    @Value("${ezdine.orders.ingestion.poll-timeout-ms:50}")
+    private Long pollTimeoutMs;
+
+    private final BlockingQueue<OrderEntity> queue;
+
+    private final Map<UUID, PendingOrder> pending = new ConcurrentHashMap<>();
+
+    // recently failed order ids, so pollers can tell a failure from an unknown id
+    private final Map<UUID, String> failed = Collections.synchronizedMap(new LinkedHashMap<UUID, String>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+            return size() > 10000;
+        }
+    });
+
+    private DistributionSummary batchSizeSummary;
+
+    private Timer batchTimer;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    public OrderIngestionQueue(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher,
+            @Value("${ezdine.orders.ingestion.queue-capacity:10000}") Integer queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        Gauge.builder("ezdine.orders.ingestion.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("ezdine.orders.ingestion.pending", pending, Map::size).register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("ezdine.orders.ingestion.batch.size").register(meterRegistry);
+        batchTimer = Timer.builder("ezdine.orders.ingestion.batch.commit").register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drain, "order-ingestion-writer");
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        if (Objects.nonNull(writer)) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(OrderEntity order, String username) {
+        PendingOrder entry = new PendingOrder(username, new CompletableFuture<>());
+        pending.put(order.getOrderId(), entry);
+
+        if (!queue.offer(order)) {
+            pending.remove(order.getOrderId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order queue is full");
+        }
+    }
+
+    public CompletableFuture<OrderResponse> pending(UUID orderId, String username) {
+        PendingOrder entry = pending.get(orderId);
+
+        if (Objects.isNull(entry) || !entry.username().equals(username)) {
+            return null;
+        }
+
+        return entry.future();
+    }
+
+    public boolean isFailed(UUID orderId) {
+        return failed.containsKey(orderId);
+    }
+
+    private void drain() {
+        List<OrderEntity> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderEntity first = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+
+                // everything that queued up while the previous batch committed goes in this one
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Order ingestion writer error", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<OrderEntity> batch) {
+        batchSizeSummary.record(batch.size());
+
+        try {
+            Map<UUID, Integer> ids = batchTimer.record(() -> transactionTemplate.execute(status -> insert(batch)));
+            batch.forEach(order -> confirm(order, ids));
+        } catch (Exception e) {
+            log.warn("Order batch of {} failed, retrying one by one", batch.size(), e);
+
+            for (OrderEntity order : batch) {
+                try {
+                    Map<UUID, Integer> ids = transactionTemplate.execute(status -> insert(List.of(order)));
+                    confirm(order, ids);
+                } catch (Exception ex) {
+                    reject(order, ex);
+                }
+            }
+        }
+    }
+
+    private Map<UUID, Integer> insert(List<OrderEntity> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        jdbcTemplate.batchUpdate(INSERT_ORDER, batch, batch.size(), (ps, order) -> {
+            ps.setObject(1, order.getOrderId());
+            ps.setTimestamp(2, Timestamp.from(order.getPlacedAt()));
+            ps.setInt(3, order.getSubTotal());
+            ps.setDouble(4, order.getTax());
+            ps.setInt(5, order.getTotalPrice());
+            ps.setString(6, order.getStatus().getLabel());
+            ps.setString(7, order.getRemark());
+            ps.setInt(8, order.getPriority());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+            ps.setInt(11, order.getUserEntity().getId());
+        });
+
+        Map<UUID, Integer> ids = new HashMap<>();
+        MapSqlParameterSource params = new MapSqlParameterSource("orderIds", batch.stream().map(OrderEntity::getOrderId).toList());
+
+        namedParameterJdbcTemplate.query(SELECT_IDS, params, rs -> {
+            ids.put(rs.getObject("order_id", UUID.class), rs.getInt("id"));
+        });
+
+        return ids;
+    }
+
+    private void confirm(OrderEntity order, Map<UUID, Integer> ids) {
+        order.setId(ids.get(order.getOrderId()));
+
+        PendingOrder entry = pending.remove(order.getOrderId());
+
+        if (Objects.nonNull(entry)) {
+            entry.future().complete(ResponseMapper.ToOrderResponseMapper(order));
+        }
+
+        // committed by now; listeners accept events published outside a transaction
+        eventPublisher.publishEvent(ResponseMapper.ToOrderStatusEventMapper(order, null));
+    }
+
+    private void reject(OrderEntity order, Exception e) {
+        log.error("Order {} could not be persisted", order.getOrderId(), e);
+        meterRegistry.counter("ezdine.orders.ingestion.failed").increment();
+
+        failed.put(order.getOrderId(), e.getMessage());
+
+        PendingOrder entry = pending.remove(order.getOrderId());
+
+        if (Objects.nonNull(entry)) {
+            entry.future().completeExceptionally(e);
+        }
+    }
+
+    private record PendingOrder(String username, CompletableFuture<OrderResponse> future) {
+    }
+}
@@ -4,17 +4,20 @@ import java.util.List;
 import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import restful.api.ezdine.aspect.RetryOnConflict;
 import restful.api.ezdine.entity.FoodEntity;
 import restful.api.ezdine.entity.OrderEntity;
 import restful.api.ezdine.entity.OrderItemEntity;
 import restful.api.ezdine.entity.UserEntity;
 import restful.api.ezdine.mapper.ResponseMapper;
 import restful.api.ezdine.model.OrderItemResponse;
+import restful.api.ezdine.model.OrderChangedEvent;
 import restful.api.ezdine.model.RegisterOrderItemRequest;
 import restful.api.ezdine.model.UpdateOrderItemRequest;
 import restful.api.ezdine.repository.FoodRepository;
@@ -40,16 +43,35 @@ public class OrderItemService {
     @Autowired
     ValidationService validationService;
 
+    @Autowired
+    PricingService pricingService;
+
+    @Autowired
+    StockService stockService;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    SalesRollupService salesRollupService;
+
     public OrderItemService(UserRepository userRepository, OrderRepository orderRepository,
             OrderItemRepository orderItemRepository, FoodRepository foodRepository,
-            ValidationService validationService) {
+            ValidationService validationService, PricingService pricingService,
+            StockService stockService, ApplicationEventPublisher eventPublisher,
+            SalesRollupService salesRollupService) {
         this.userRepository = userRepository;
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.foodRepository = foodRepository;
         this.validationService = validationService;          
+        this.pricingService = pricingService;
+        this.stockService = stockService;
+        this.eventPublisher = eventPublisher;
+        this.salesRollupService = salesRollupService;
     }
 
+    @RetryOnConflict
     @Transactional
     public OrderItemResponse register(Authentication authentication, String strOrderId, RegisterOrderItemRequest request) {
         validationService.validate(request);
@@ -62,7 +84,7 @@ public class OrderItemService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
@@ -71,13 +93,22 @@ public class OrderItemService {
         FoodEntity food = foodRepository.findFirstById(Integer.parseInt(request.getFoodId()))
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Food not found"));
 
+        stockService.reserve(food.getId(), request.getQuantity());
+
         OrderItemEntity item = new OrderItemEntity();
         item.setFoodEntity(food);
         item.setOrderEntity(order);
         item.setQuantity(request.getQuantity());
-        item.setSubTotal(request.getSubTotal());
+        item.setSubTotal(pricingService.itemSubTotal(food.getId(), request.getQuantity()));
         orderItemRepository.save(item);
 
+        pricingService.applyItemDelta(order, item.getSubTotal());
+        orderRepository.save(order);
+
+        salesRollupService.record(order, food, item.getQuantity(), item.getSubTotal());
+
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId()));
+
         return ResponseMapper.ToOrderItemResponseMapper(item);
     }
 
@@ -93,16 +124,15 @@ public class OrderItemService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        if (!orderRepository.existsByUserEntityAndId(user, orderId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found");
+        }
 
-        OrderItemEntity item = orderItemRepository.findFirstByOrderEntityAndId(order, itemId)
+        return orderItemRepository.findResponseByOrderIdAndId(orderId, itemId)
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found"));
-
-        return ResponseMapper.ToOrderItemResponseMapper(item);
     }
 
     @Transactional(readOnly = true)
@@ -115,17 +145,17 @@ public class OrderItemService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
-                            
-        List<OrderItemEntity> items = orderItemRepository.findAllByOrderEntity(order);
+        if (!orderRepository.existsByUserEntityAndId(user, orderId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found");
+        }
 
-        return ResponseMapper.ToOrderItemResponseListMapper(items);
+        return orderItemRepository.findResponsesByOrderId(orderId);
     }
 
+    @RetryOnConflict
     @Transactional
     public OrderItemResponse update(Authentication authentication, String strOrderId, String strItemId, UpdateOrderItemRequest request) {
         validationService.validate(request);
@@ -140,7 +170,7 @@ public class OrderItemService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
@@ -150,18 +180,26 @@ public class OrderItemService {
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found"));
 
         if (Objects.nonNull(request.getQuantity())) {
-            item.setQuantity(request.getQuantity());
-        }
+            Integer subTotal = pricingService.itemSubTotal(item.getFoodEntity().getId(), request.getQuantity());
 
-        if (Objects.nonNull(request.getSubTotal())) {
-            item.setSubTotal(request.getSubTotal());
+            stockService.adjust(item.getFoodEntity().getId(), request.getQuantity() - item.getQuantity());
+            pricingService.applyItemDelta(order, subTotal - item.getSubTotal());
+            salesRollupService.record(order, item.getFoodEntity(), 
+                                    request.getQuantity() - item.getQuantity(), subTotal - item.getSubTotal());
+
+            item.setQuantity(request.getQuantity());
+            item.setSubTotal(subTotal);
         }
 
         orderItemRepository.save(item);
+        orderRepository.save(order);
+
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId()));
 
         return ResponseMapper.ToOrderItemResponseMapper(item);
     }
 
+    @RetryOnConflict
     @Transactional
     public void delete(Authentication authentication, String strOrderId, String strItemId) {
         Integer orderId = 0;
@@ -174,7 +212,7 @@ public class OrderItemService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
@@ -183,10 +221,17 @@ public class OrderItemService {
         OrderItemEntity item = orderItemRepository.findFirstByOrderEntityAndId(order, itemId)
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found"));
 
+        stockService.release(item.getFoodEntity().getId(), item.getQuantity());
+        pricingService.applyItemDelta(order, -item.getSubTotal());
+        salesRollupService.record(order, item.getFoodEntity(), -item.getQuantity(), -item.getSubTotal());
+
         try {
             orderItemRepository.delete(item);
+            orderRepository.save(order);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Delete item failed");
         } 
+
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId()));
     }
 }
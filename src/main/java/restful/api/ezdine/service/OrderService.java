@@ -1,29 +1,51 @@
 package restful.api.ezdine.service;
 
-import java.util.Date;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import restful.api.ezdine.aspect.RetryOnConflict;
 import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
 import restful.api.ezdine.entity.UserEntity;
 import restful.api.ezdine.mapper.ResponseMapper;
+import restful.api.ezdine.model.CursorPageResponse;
+import restful.api.ezdine.model.OrderChangedEvent;
+import restful.api.ezdine.model.OrderIngestionResponse;
+import restful.api.ezdine.model.OrderItemResponse;
 import restful.api.ezdine.model.OrderResponse;
 import restful.api.ezdine.model.RegisterOrderRequest;
+import restful.api.ezdine.model.UpdateOrderPriorityRequest;
 import restful.api.ezdine.model.UpdateOrderRequest;
+import restful.api.ezdine.repository.OrderItemRepository;
 import restful.api.ezdine.repository.OrderRepository;
 import restful.api.ezdine.repository.UserRepository;
 
 @Service
 public class OrderService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
+    public static final String EMBED_ITEMS = "items";
+
     @Autowired
     UserRepository userRepository;
 
@@ -33,36 +55,109 @@ public class OrderService {
     @Autowired
     ValidationService validationService;
 
+    @Autowired
+    PricingService pricingService;
+
+    @Autowired
+    OrderIngestionQueue orderIngestionQueue;
+
+    @Autowired
+    OrderItemRepository orderItemRepository;
+
+    @Autowired
+    OrderEventBus orderEventBus;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     public OrderService(UserRepository userRepository, OrderRepository orderRepository,
-            ValidationService validationService) {
+            ValidationService validationService, PricingService pricingService,
+            OrderIngestionQueue orderIngestionQueue, OrderItemRepository orderItemRepository,
+            OrderEventBus orderEventBus, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
         this.validationService = validationService;
+        this.pricingService = pricingService;
+        this.orderIngestionQueue = orderIngestionQueue;
+        this.orderEventBus = orderEventBus;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public OrderResponse register(Authentication authentication, RegisterOrderRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        Date date = new Date();
-
-        OrderEntity order = new OrderEntity();
-        order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
-        order.setSubTotal(request.getSubTotal());
-        order.setTax(request.getTax());
-        order.setTotalPrice(request.getTotalPrice());
-        order.setStatus(request.getStatus());
+        OrderEntity order = newOrder(user, request);
         orderRepository.save(order);
 
+        eventPublisher.publishEvent(ResponseMapper.ToOrderStatusEventMapper(order, null));
+
         return ResponseMapper.ToOrderResponseMapper(order);
     }
 
-    @Transactional(readOnly = true)
+    public boolean isIngestionEnabled() {
+        return orderIngestionQueue.isEnabled();
+    }
+
+    // read-write on purpose: the user lookup must see the primary, a lagging replica may not have the account yet
+    @Transactional
+    public OrderResponse submit(Authentication authentication, RegisterOrderRequest request) {
+        validationService.validate(request);
+
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        OrderEntity order = newOrder(user, request);
+        orderIngestionQueue.submit(order, authentication.getName());
+
+        return ResponseMapper.ToOrderResponseMapper(order);
+    }
+
+    // read-write on purpose: the writer has just committed the order on the primary, a lagging replica
+    // would report it missing
+    @Transactional
+    public CompletableFuture<OrderIngestionResponse> ingestion(Authentication authentication, String strOrderId, Long waitMs) {
+        UUID orderId = parseOrderRef(strOrderId);
+
+        CompletableFuture<OrderResponse> pending = orderIngestionQueue.pending(orderId, authentication.getName());
+
+        if (Objects.nonNull(pending)) {
+            // copy, so a timeout here never completes the future other pollers wait on
+            return pending.copy()
+                    .completeOnTimeout(null, Math.max(waitMs, 0), TimeUnit.MILLISECONDS)
+                    .handle((order, e) -> OrderIngestionResponse.builder()
+                            .orderId(orderId)
+                            .state(Objects.nonNull(e) ? "FAILED" : Objects.isNull(order) ? "QUEUED" : "PERSISTED")
+                            .order(order)
+                            .build());
+        }
+
+        if (orderIngestionQueue.isFailed(orderId)) {
+            return CompletableFuture.completedFuture(OrderIngestionResponse.builder()
+                    .orderId(orderId)
+                    .state("FAILED")
+                    .build());
+        }
+
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        OrderResponse order = orderRepository.findResponseByUserIdAndOrderId(user.getId(), orderId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+
+        return CompletableFuture.completedFuture(OrderIngestionResponse.builder()
+                .orderId(orderId)
+                .state("PERSISTED")
+                .order(order)
+                .build());
+    }
+
+    // read-write on purpose: clients fetch an order straight after placing it, which a lagging replica may not have yet
+    @Transactional
     public OrderResponse get(Authentication authentication, String strOrderId) {
         Integer orderId = 0;
 
@@ -72,33 +167,84 @@ public class OrderService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
+        return orderRepository.findResponseByUserIdAndId(user.getId(), orderId)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+    }
+
+    // read-write on purpose: clients fetch an order straight after placing it, which a lagging replica may not have yet
+    @Transactional
+    public OrderResponse getByRef(Authentication authentication, String strOrderRef) {
+        UUID orderRef = parseOrderRef(strOrderRef);
+
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        return ResponseMapper.ToOrderResponseMapper(order);                    
+        return orderRepository.findResponseByUserIdAndOrderId(user.getId(), orderRef)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
     }
 
     @Transactional(readOnly = true)
-    public List<OrderResponse> userOrder(Authentication authentication) {        
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+    public CursorPageResponse<OrderResponse> userOrder(Authentication authentication, String cursor, 
+                                                Integer size, String embed) {        
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        List<OrderEntity> orders = orderRepository.findAllByUserEntity(user);
+        if (Objects.nonNull(embed) && !EMBED_ITEMS.equals(embed)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad embed");
+        }
+
+        OrderCursor after = Objects.nonNull(cursor) ? OrderCursor.decode(cursor) : null;
 
-        return ResponseMapper.ToOrderResponseListMapper(orders);
+        CursorPageResponse<OrderResponse> page = page(listSpecification(null, user.getId(), null, null, after), size);
+
+        if (EMBED_ITEMS.equals(embed) && !page.getItems().isEmpty()) {
+            // second and last query of the page: every item of every order on it, food name joined in
+            List<Integer> orderIds = page.getItems().stream().map(OrderResponse::getId).toList();
+
+            Map<Integer, List<OrderItemResponse>> itemsByOrder = orderItemRepository.findResponsesByOrderIds(orderIds)
+                                                                    .stream()
+                                                                    .collect(Collectors.groupingBy(OrderItemResponse::getOrderId));
+
+            page.getItems().forEach(p -> p.setItems(itemsByOrder.getOrDefault(p.getId(), new ArrayList<>())));
+        }
+
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<OrderResponse> list() {                
-        List<OrderEntity> orders = orderRepository.findAll();
+    public CursorPageResponse<OrderResponse> list(String cursor, Integer size, String status,
+                                                String strUserId, String strFrom, String strTo) {
+        Integer userId = null;
+        Instant from = null;
+        Instant to = null;
+
+        try {
+            userId = Objects.nonNull(strUserId) ? Integer.parseInt(strUserId) : null;
+            from = Objects.nonNull(strFrom) ? Instant.parse(strFrom) : null;
+            to = Objects.nonNull(strTo) ? Instant.parse(strTo) : null;
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
+        }
+
+        OrderCursor after = Objects.nonNull(cursor) ? OrderCursor.decode(cursor) : null;
+
+        OrderStatus orderStatus = Objects.nonNull(status) ? parseStatus(status) : null;
 
-        return ResponseMapper.ToOrderResponseListMapper(orders);
+        CursorPageResponse<OrderResponse> page = page(listSpecification(orderStatus, userId, from, to, after), size);
+
+        // the estimate covers the whole table, which would overstate any filtered listing
+        if (Objects.isNull(orderStatus) && Objects.isNull(userId) && Objects.isNull(from) && Objects.isNull(to)) {
+            page.setTotalEstimate(orderRepository.estimateCount());
+        }
+
+        return page;
     }
 
 
+    @RetryOnConflict
     @Transactional
     public OrderResponse update(Authentication authentication, UpdateOrderRequest request, String strOrderId) {
         Integer orderId = 0;
@@ -109,30 +255,159 @@ public class OrderService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
 
-        if (Objects.nonNull(request.getSubTotal())) {
-            order.setSubTotal(request.getSubTotal());
-        }
+        OrderStatus previous = order.getStatus();
 
-        if (Objects.nonNull(request.getTax())) {
-            order.setTax(request.getTax());
+        if (Objects.nonNull(request.getStatus())) {
+            OrderStatus target = parseStatus(request.getStatus());
+
+            if (target != previous && Objects.nonNull(previous) && !previous.canTransitionTo(target)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, 
+                            "Invalid status transition from " + previous.getLabel() + " to " + target.getLabel());
+            }
+
+            order.setStatus(target);
         }
 
-        if (Objects.nonNull(request.getTotalPrice())) {
-            order.setTotalPrice(request.getTotalPrice());
+        orderRepository.save(order);
+
+        if (order.getStatus() != previous) {
+            eventPublisher.publishEvent(ResponseMapper.ToOrderStatusEventMapper(order, previous));
         }
 
-        if (Objects.nonNull(request.getStatus())) {
-            order.setStatus(request.getStatus());
+        return ResponseMapper.ToOrderResponseMapper(order);
+    }
+
+    @RetryOnConflict
+    @Transactional
+    public OrderResponse prioritize(UpdateOrderPriorityRequest request, String strOrderId) {
+        validationService.validate(request);
+
+        Integer orderId = 0;
+
+        try {
+            orderId = Integer.parseInt(strOrderId);       
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
         }
 
+        OrderEntity order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+
+        order.setPriority(request.getPriority());
         orderRepository.save(order);
 
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId()));
+
         return ResponseMapper.ToOrderResponseMapper(order);
     }
+
+    // read-write on purpose: the snapshot sent on subscribe must be the current status, not a lagging replica's
+    @Transactional
+    public SseEmitter events(Authentication authentication, String strOrderId) {
+        Integer orderId = 0;
+
+        try {
+            orderId = Integer.parseInt(strOrderId);       
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
+        }
+
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        OrderEntity order = orderRepository.findFirstByUserEntityAndId(user, orderId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+
+        return orderEventBus.subscribe(order.getId(), ResponseMapper.ToOrderStatusEventMapper(order, null));
+    }
+
+    private OrderEntity newOrder(UserEntity user, RegisterOrderRequest request) {
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UuidV7.generate());
+        order.setPlacedAt(Instant.now());
+        order.setStatus(parseStatus(request.getStatus()));
+        order.setPriority(0);
+        pricingService.resetTotals(order);
+
+        return order;
+    }
+
+    private OrderStatus parseStatus(String strStatus) {
+        try {
+            return OrderStatus.fromLabel(strStatus);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad status");
+        }
+    }
+
+    private UUID parseOrderRef(String strOrderRef) {
+        try {
+            return UUID.fromString(strOrderRef);
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
+        }
+    }
+
+    private CursorPageResponse<OrderResponse> page(Specification<OrderEntity> spec, Integer size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad page size");
+        }
+
+        // one extra row tells us whether another page exists, without counting
+        List<OrderResponse> orders = orderRepository.findResponses(spec, size + 1);
+
+        String nextCursor = null;
+
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+
+            OrderResponse last = orders.get(size - 1);
+            nextCursor = new OrderCursor(last.getPlacedAt(), last.getId()).encode();
+        }
+
+        return CursorPageResponse.<OrderResponse>builder()
+                    .items(orders)
+                    .nextCursor(nextCursor)
+                    .build();
+    }
+
+    private Specification<OrderEntity> listSpecification(OrderStatus status, Integer userId, 
+                                                Instant from, Instant to, OrderCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Path<Instant> placedAt = root.get("placedAt");
+
+            if (Objects.nonNull(status)) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+
+            if (Objects.nonNull(userId)) {
+                predicates.add(cb.equal(root.get("userEntity").get("id"), userId));
+            }
+
+            if (Objects.nonNull(from)) {
+                predicates.add(cb.greaterThanOrEqualTo(placedAt, from));
+            }
+
+            if (Objects.nonNull(to)) {
+                predicates.add(cb.lessThan(placedAt, to));
+            }
+
+            if (Objects.nonNull(after)) {
+                predicates.add(cb.or(
+                    cb.lessThan(placedAt, after.timestamp()),
+                    cb.and(cb.equal(placedAt, after.timestamp()), cb.lessThan(root.<Integer>get("id"), after.id()))
+                ));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
 }
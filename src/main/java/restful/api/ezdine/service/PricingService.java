@@ -0,0 +1,92 @@
+package restful.api.ezdine.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.repository.FoodRepository;
+
+@Service
+public class PricingService {
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Value("${ezdine.pricing.tax-rate:0.1}")
+    private Double taxRate;
+
+    @Value("${ezdine.pricing.tax-scale:2}")
+    private Integer taxScale;
+
+    // food id -> unit price, filled on first use and evicted once FoodService writes commit
+    private final Map<Integer, Double> priceTable = new ConcurrentHashMap<>();
+
+    public PricingService(FoodRepository foodRepository) {
+        this.foodRepository = foodRepository;
+    }
+
+    public Double unitPrice(Integer foodId) {
+        Double price = priceTable.get(foodId);
+
+        if (Objects.nonNull(price)) {
+            return price;
+        }
+
+        price = foodRepository.findPriceById(foodId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Food not found"));
+
+        priceTable.put(foodId, price);
+
+        return price;
+    }
+
+    public Integer itemSubTotal(Integer foodId, Integer quantity) {
+        return (int) Math.round(unitPrice(foodId) * quantity);
+    }
+
+    // after commit, otherwise a reader could re-cache the old price before the new one is visible
+    public void evict(Integer foodId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            priceTable.remove(foodId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                priceTable.remove(foodId);
+            }
+        });
+    }
+
+    public void resetTotals(OrderEntity order) {
+        order.setSubTotal(0);
+        order.setTax(0.0);
+        order.setTotalPrice(0);
+    }
+
+    public void applyItemDelta(OrderEntity order, Integer delta) {
+        Integer subTotal = Objects.nonNull(order.getSubTotal()) ? order.getSubTotal() : 0;
+        subTotal += delta;
+
+        Double tax = BigDecimal.valueOf(subTotal)
+                        .multiply(BigDecimal.valueOf(taxRate))
+                        .setScale(taxScale, RoundingMode.HALF_UP)
+                        .doubleValue();
+
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice((int) Math.round(subTotal + tax));
+    }
+}
@@ -41,7 +41,7 @@ public class ProfileService {
     public ProfileResponse register(Authentication authentication, RegisterProfileRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
         ProfileEntity profile = new ProfileEntity();
@@ -61,7 +61,7 @@ public class ProfileService {
     @Transactional(readOnly = true)
     public ProfileResponse get(Authentication authentication) {
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     
         ProfileEntity profile = profileRepository.findFirstByUserEntity(user)
@@ -73,7 +73,7 @@ public class ProfileService {
     @Transactional
     public ProfileResponse update(Authentication authentication, UpdateProfileRequest request) {
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findReferenceByEmail(authentication.getName())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     
         ProfileEntity profile = profileRepository.findFirstByUserEntity(user)
@@ -0,0 +1,143 @@
+package restful.api.ezdine.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import restful.api.ezdine.entity.FoodEntity;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.model.SalesReportResponse;
+import restful.api.ezdine.repository.SalesDailyRollupRepository;
+
+/**
+ * Keeps sales_daily_rollup in step with order item writes. Deltas recorded
+ * during a transaction are coalesced per (day, category, food) and upserted
+ * just before that transaction commits, so the rollup commits or rolls back
+ * together with the items it summarises.
+ */
+@Service
+public class SalesRollupService {
+
+    public static final int MAX_REPORT_DAYS = 366;
+
+    private static final String UPSERT = "insert into sales_daily_rollup "
+            + "(day, category_id, food_id, quantity, revenue, updated_at) values (?, ?, ?, ?, ?, now()) "
+            + "on conflict (day, category_id, food_id) do update set "
+            + "quantity = sales_daily_rollup.quantity + excluded.quantity, "
+            + "revenue = sales_daily_rollup.revenue + excluded.revenue, "
+            + "updated_at = excluded.updated_at";
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::day)
+            .thenComparing(RollupKey::categoryId)
+            .thenComparing(RollupKey::foodId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+
+    @Value("${ezdine.reports.zone:UTC}")
+    private ZoneId zone;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate, SalesDailyRollupRepository salesDailyRollupRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.salesDailyRollupRepository = salesDailyRollupRepository;
+    }
+
+    // the bucket is the day the order was placed, so later edits land where the sale did
+    public void record(OrderEntity order, FoodEntity food, Integer quantityDelta, Integer revenueDelta) {
+        if (quantityDelta == 0 && revenueDelta == 0) {
+            return;
+        }
+
+        RollupKey key = new RollupKey(order.getPlacedAt().atZone(zone).toLocalDate(),
+                                    food.getCategoryEntity().getId(), food.getId());
+
+        pendingDeltas().merge(key, new long[] {quantityDelta, revenueDelta}, (p, q) -> new long[] {p[0] + q[0], p[1] + q[1]});
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesReportResponse> report(String strFrom, String strTo) {
+        LocalDate from = null;
+        LocalDate to = null;
+
+        try {
+            from = LocalDate.parse(strFrom);
+            to = Objects.nonNull(strTo) ? LocalDate.parse(strTo) : from;
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request");
+        }
+
+        if (to.isBefore(from) || from.plusDays(MAX_REPORT_DAYS).isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad date range");
+        }
+
+        return salesDailyRollupRepository.findReport(from, to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<RollupKey, long[]> pendingDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Sales rollup deltas must be recorded inside a transaction");
+        }
+
+        Map<RollupKey, long[]> deltas = (Map<RollupKey, long[]>) TransactionSynchronizationManager.getResource(this);
+
+        if (Objects.nonNull(deltas)) {
+            return deltas;
+        }
+
+        // sorted, so concurrent commits lock shared rollup rows in the same order and cannot deadlock
+        Map<RollupKey, long[]> created = new TreeMap<>(KEY_ORDER);
+        TransactionSynchronizationManager.bindResource(this, created);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                upsertDeltas(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SalesRollupService.this);
+            }
+        });
+
+        return created;
+    }
+
+    private void upsertDeltas(Map<RollupKey, long[]> deltas) {
+        List<Map.Entry<RollupKey, long[]>> rows = deltas.entrySet().stream()
+                                                    .filter(p -> p.getValue()[0] != 0 || p.getValue()[1] != 0)
+                                                    .toList();
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+            ps.setDate(1, Date.valueOf(row.getKey().day()));
+            ps.setInt(2, row.getKey().categoryId());
+            ps.setInt(3, row.getKey().foodId());
+            ps.setLong(4, row.getValue()[0]);
+            ps.setLong(5, row.getValue()[1]);
+        });
+    }
+
+    private record RollupKey(LocalDate day, Integer categoryId, Integer foodId) {
+    }
+}
@@ -0,0 +1,122 @@
+package restful.api.ezdine.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import restful.api.ezdine.repository.FoodRepository;
+
+/**
+ * In-process stock counters for designated hot foods. Reservations only touch
+ * striped {@link LongAdder} cells; the net result is flushed to the foods table
+ * on a fixed delay and the seed is reconciled against the database afterwards.
+ */
+@Component
+@Slf4j
+public class StockLedger {
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Value("${ezdine.stock.hot-food-ids:}")
+    private List<Integer> hotFoodIds;
+
+    @Value("${ezdine.stock.oversell-bound:0}")
+    private Long oversellBound;
+
+    private final Map<Integer, HotStock> ledger = new ConcurrentHashMap<>();
+
+    public StockLedger(FoodRepository foodRepository) {
+        this.foodRepository = foodRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        hotFoodIds.forEach(this::track);
+    }
+
+    // seeds one food from its current database stock, also for designating a hot food after startup
+    public void track(Integer foodId) {
+        Optional<Integer> stock = foodRepository.findStockById(foodId);
+
+        if (stock.isEmpty()) {
+            log.warn("Hot food {} not found, reservations will use the database", foodId);
+            return;
+        }
+
+        ledger.put(foodId, new HotStock(stock.get()));
+        log.info("Hot food {} seeded with stock {}", foodId, stock.get());
+    }
+
+    public boolean isHot(Integer foodId) {
+        return ledger.containsKey(foodId);
+    }
+
+    public boolean tryReserve(Integer foodId, Integer quantity) {
+        HotStock stock = ledger.get(foodId);
+
+        // add first and check afterwards: every accepted reservation has seen its own
+        // increment plus all increments completed before it, so the bound holds
+        stock.reserved.add(quantity);
+
+        if (stock.base - stock.reserved.sum() < -oversellBound) {
+            stock.reserved.add(-quantity);
+            return false;
+        }
+
+        return true;
+    }
+
+    public void adjust(Integer foodId, Integer delta) {
+        ledger.get(foodId).reserved.add(delta);
+    }
+
+    @Scheduled(fixedDelayString = "${ezdine.stock.flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        ledger.forEach((foodId, stock) -> {
+            try {
+                long total = stock.reserved.sum();
+                long delta = total - stock.flushed;
+
+                if (delta != 0) {
+                    foodRepository.deductStock(foodId, Math.toIntExact(delta));
+                    stock.flushed = total;
+                }
+
+                // picks up stock changes made outside the ledger, e.g. admin updates
+                foodRepository.findStockById(foodId)
+                    .ifPresent(current -> stock.base = current + stock.flushed);
+            } catch (Exception e) {
+                log.error("Flushing hot food {} failed, retrying on next run", foodId, e);
+            }
+        });
+    }
+
+    private static class HotStock {
+
+        // database stock plus everything this ledger already flushed
+        private volatile long base;
+
+        // net units reserved through the ledger since seeding
+        private final LongAdder reserved = new LongAdder();
+
+        // part of reserved already applied to the database, only touched under flush()
+        private long flushed;
+
+        private HotStock(long base) {
+            this.base = base;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package restful.api.ezdine.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import restful.api.ezdine.repository.FoodRepository;
+
+@Service
+public class StockService {
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    public StockService(FoodRepository foodRepository, StockLedger stockLedger) {
+        this.foodRepository = foodRepository;
+        this.stockLedger = stockLedger;
+    }
+
+    public void reserve(Integer foodId, Integer quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+
+        if (stockLedger.isHot(foodId)) {
+            if (!stockLedger.tryReserve(foodId, quantity)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient stock");
+            }
+
+            onRollback(() -> stockLedger.adjust(foodId, -quantity));
+            return;
+        }
+
+        // single conditional UPDATE, so concurrent reservations can never drive stock below zero
+        if (foodRepository.reserveStock(foodId, quantity) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient stock");
+        }
+    }
+
+    public void release(Integer foodId, Integer quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+
+        if (stockLedger.isHot(foodId)) {
+            stockLedger.adjust(foodId, -quantity);
+            onRollback(() -> stockLedger.adjust(foodId, quantity));
+            return;
+        }
+
+        foodRepository.releaseStock(foodId, quantity);
+    }
+
+    public void adjust(Integer foodId, Integer delta) {
+        if (delta > 0) {
+            reserve(foodId, delta);
+        } else {
+            release(foodId, -delta);
+        }
+    }
+
+    // the ledger lives outside the database transaction, so undo its changes by hand
+    private void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+}
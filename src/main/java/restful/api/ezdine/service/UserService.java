@@ -18,8 +18,8 @@ import restful.api.ezdine.mapper.ResponseMapper;
 import restful.api.ezdine.model.RegisterUserRequest;
 import restful.api.ezdine.model.UpdateUserRequest;
 import restful.api.ezdine.model.UserResponse;
-import restful.api.ezdine.repository.RoleRepository;
 import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.security.RoleRegistry;
 
 @Service
 @Slf4j
@@ -29,7 +29,7 @@ public class UserService {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    RoleRegistry roleRegistry;
 
     @Autowired
     PasswordEncoder passwordEncoder;
@@ -37,10 +37,10 @@ public class UserService {
     @Autowired
     private ValidationService validationService;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, 
+    public UserService(UserRepository userRepository, RoleRegistry roleRegistry, 
                         PasswordEncoder passwordEncoder, ValidationService validationService) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.passwordEncoder = passwordEncoder;
         this.validationService = validationService;
     }
@@ -53,7 +53,7 @@ public class UserService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already registered");
         }
 
-        RoleEntity role = roleRepository.findByName(request.getRole()).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Roles not found"));
+        RoleEntity role = roleRegistry.role(request.getRole()).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Roles not found"));
 
         UserEntity user = new UserEntity();
         user.setEmail(request.getEmail());        
@@ -70,7 +70,7 @@ public class UserService {
 
         log.info("CURRENT NAME {}", authentication.getName());
 
-        UserEntity user = userRepository.findByEmail(authentication.getName()).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));                    
+        UserEntity user = userRepository.findWithRolesByEmail(authentication.getName()).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));                    
 
         return ResponseMapper.ToUserResponseMapper(user);
     }
@@ -79,7 +79,7 @@ public class UserService {
     public UserResponse update(Authentication authentication, UpdateUserRequest request) {
         validationService.validate(request);
 
-        UserEntity user = userRepository.findByEmail(authentication.getName())
+        UserEntity user = userRepository.findWithRolesByEmail(authentication.getName())
                             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
             
         if (Objects.nonNull(request.getPassword())) {
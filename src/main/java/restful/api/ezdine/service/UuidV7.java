@@ -0,0 +1,50 @@
+package restful.api.ezdine.service;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * RFC 9562 version 7 UUIDs: 48 bits of unix epoch milliseconds followed by
+ * random bits. Values generated later sort later, so inserts land at the
+ * right-hand edge of the order_id index instead of on random pages.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        return generate(System.currentTimeMillis());
+    }
+
+    public static UUID generate(long epochMillis) {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+
+        bytes[0] = (byte) (epochMillis >>> 40);
+        bytes[1] = (byte) (epochMillis >>> 32);
+        bytes[2] = (byte) (epochMillis >>> 24);
+        bytes[3] = (byte) (epochMillis >>> 16);
+        bytes[4] = (byte) (epochMillis >>> 8);
+        bytes[5] = (byte) epochMillis;
+
+        // version 7 in the high nibble of byte 6, IETF variant in the top bits of byte 8
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x70);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+
+        long msb = 0;
+        long lsb = 0;
+
+        for (int i = 0; i < 8; i++) {
+            msb = (msb << 8) | (bytes[i] & 0xff);
+        }
+
+        for (int i = 8; i < 16; i++) {
+            lsb = (lsb << 8) | (bytes[i] & 0xff);
+        }
+
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,96 @@
+-- The schema as ddl-auto=update built it before Flyway took over, and nothing
+-- more. Databases that already have it are baselined at version 1 and skip
+-- this script, so every later change belongs in V2 onwards.
+
+create table roles (
+    id bigint generated by default as identity primary key,
+    name varchar(64) not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    constraint uk_roles_name unique (name)
+);
+
+create table users (
+    id integer generated by default as identity primary key,
+    email varchar(64) not null,
+    password varchar(255),
+    token varchar(255),
+    token_expired_at bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    constraint uk_users_email unique (email)
+);
+
+create table users_roles (
+    user_id integer not null,
+    role_id bigint not null,
+    constraint fk_users_roles_user_id foreign key (user_id) references users (id),
+    constraint fk_users_roles_role_id foreign key (role_id) references roles (id)
+);
+
+create table profiles (
+    id integer generated by default as identity primary key,
+    firstname varchar(255),
+    lastname varchar(255),
+    address varchar(255),
+    phone_number varchar(255),
+    city varchar(255),
+    province varchar(255),
+    postalcode varchar(255),
+    user_id integer,
+    constraint uk_profiles_user_id unique (user_id),
+    constraint fk_profiles_user_id foreign key (user_id) references users (id)
+);
+
+create table category (
+    id integer generated by default as identity primary key,
+    name varchar(255) not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    user_id integer not null,
+    constraint uk_category_name unique (name),
+    constraint fk_category_user_id foreign key (user_id) references users (id)
+);
+
+create table foods (
+    id integer generated by default as identity primary key,
+    code varchar(255) not null,
+    name varchar(255) not null,
+    price float(53),
+    stock integer,
+    photo_url varchar(255),
+    description varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    category_id integer not null,
+    constraint uk_foods_code unique (code),
+    constraint uk_foods_name unique (name),
+    constraint fk_foods_category_id foreign key (category_id) references category (id)
+);
+
+create table orders (
+    id integer generated by default as identity primary key,
+    order_id varchar(255),
+    date varchar(255),
+    subtotal integer,
+    tax float(53),
+    total_price integer,
+    status varchar(255),
+    remark varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    user_id integer not null,
+    constraint fk_orders_user_id foreign key (user_id) references users (id)
+);
+
+create table order_items (
+    id integer generated by default as identity primary key,
+    quantity integer,
+    sub_total integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    food_id integer not null,
+    order_id integer not null,
+    constraint fk_order_items_food_id foreign key (food_id) references foods (id),
+    constraint fk_order_items_order_id foreign key (order_id) references orders (id)
+);
@@ -0,0 +1,54 @@
+-- Brings the V1 schema up to what the entities map: the columns and tables the
+-- order and stock changes added, which ddl-auto=update used to create on the
+-- fly, and the data patches that came with them.
+
+insert into roles (name, created_at, updated_at)
+select r.name, now(), now() from (values ('ROLE_ADMIN'), ('ROLE_USER')) as r (name)
+where not exists (select 1 from roles where roles.name = r.name);
+
+alter table foods add column version bigint default 0;
+alter table order_items add column version bigint default 0;
+
+alter table orders add column placed_at timestamptz;
+alter table orders add column priority integer default 0;
+alter table orders add column version bigint default 0;
+
+-- every legacy value is a v4 string, so the cast is safe
+alter table orders alter column order_id type uuid using order_id::uuid;
+
+-- date holds java.util.Date#toString(), which Postgres parses unless the zone abbreviation is one it
+-- does not know; those rows, and rows without one, fall back to when the row was written
+create function pg_temp.legacy_placed_at(legacy varchar, fallback timestamp) returns timestamptz as $$
+begin
+    return coalesce(legacy::timestamptz, fallback, now());
+exception when others then
+    return coalesce(fallback, now());
+end;
+$$ language plpgsql;
+
+update orders set placed_at = pg_temp.legacy_placed_at(date, created_at) where placed_at is null;
+
+-- pooled connections outlive the migration, and their temporary schema with them
+drop function pg_temp.legacy_placed_at(varchar, timestamp);
+
+create table idempotency_keys (
+    id integer generated by default as identity primary key,
+    username varchar(64) not null,
+    idempotency_key varchar(255) not null,
+    route varchar(255) not null,
+    response text,
+    created_at timestamp(6),
+    expired_at timestamp(6) not null,
+    constraint uk_idempotency_keys_username_key unique (username, idempotency_key)
+);
+
+create table sales_daily_rollup (
+    id integer generated by default as identity primary key,
+    day date not null,
+    category_id integer not null,
+    food_id integer not null,
+    quantity bigint not null,
+    revenue bigint not null,
+    updated_at timestamp(6),
+    constraint uk_sales_daily_rollup_day_category_food unique (day, category_id, food_id)
+);
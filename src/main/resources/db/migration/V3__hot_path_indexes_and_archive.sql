@@ -0,0 +1,39 @@
+-- The indexes the hot queries need, plus the archive tables and the rollup
+-- seed that OrderSchemaPatcher used to run on every startup.
+
+-- lookups by token on every authenticated request, by owner and by parent everywhere else
+create index if not exists idx_users_token on users (token);
+create index if not exists idx_users_roles_user_id on users_roles (user_id);
+create index if not exists idx_category_user_id on category (user_id);
+create index if not exists idx_foods_category_id on foods (category_id);
+create index if not exists idx_order_items_order_id on order_items (order_id);
+create index if not exists idx_order_items_food_id on order_items (food_id);
+create index if not exists idx_idempotency_keys_expired_at on idempotency_keys (expired_at);
+
+-- orders.user_id is served by the leading column of idx_orders_user_id_placed_at_id
+create unique index if not exists uk_orders_order_id on orders (order_id);
+create index if not exists idx_orders_placed_at_id on orders (placed_at, id);
+create index if not exists idx_orders_status_placed_at_id on orders (status, placed_at, id);
+create index if not exists idx_orders_user_id_placed_at_id on orders (user_id, placed_at, id);
+
+-- placed_at grows with insertion order, so a BRIN summary stays tiny and still prunes range scans
+create index if not exists idx_orders_placed_at_brin on orders using brin (placed_at);
+
+-- plain copies without keys or foreign keys, archived rows are only ever appended and read
+create table if not exists orders_archive (like orders including defaults,
+    archived_at timestamptz not null default now());
+create table if not exists order_items_archive (like order_items including defaults,
+    archived_at timestamptz not null default now());
+
+create index if not exists idx_orders_archive_order_id on orders_archive (order_id);
+create index if not exists idx_orders_archive_user_id_placed_at on orders_archive (user_id, placed_at);
+create index if not exists idx_order_items_archive_order_id on order_items_archive (order_id);
+
+-- one pass over history; afterwards the rollup is only ever maintained incrementally
+insert into sales_daily_rollup (day, category_id, food_id, quantity, revenue, updated_at)
+select (o.placed_at at time zone '${reportZone}')::date, f.category_id, f.id, sum(i.quantity), sum(i.sub_total), now()
+from order_items i
+join orders o on o.id = i.order_id
+join foods f on f.id = i.food_id
+where not exists (select 1 from sales_daily_rollup)
+group by 1, 2, 3;
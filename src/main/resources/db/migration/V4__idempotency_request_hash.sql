@@ -0,0 +1,2 @@
+-- a reused idempotency key must carry the same request body, compared by hash
+alter table idempotency_keys add column if not exists request_hash varchar(64);
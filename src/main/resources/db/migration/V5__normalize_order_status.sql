@@ -0,0 +1,11 @@
+-- statuses written before the typed lifecycle were free text; fold the spellings that mean a
+-- known status onto its label, anything else is left for OrderStatusConverter's fallback
+update orders set status = case when lower(replace(trim(status), '_', ' ')) = 'canceled' then 'cancelled'
+                                else lower(replace(trim(status), '_', ' ')) end
+where status not in ('waiting payment', 'paid', 'preparing', 'ready', 'completed', 'cancelled')
+  and lower(replace(trim(status), '_', ' ')) in ('waiting payment', 'paid', 'preparing', 'ready', 'completed', 'cancelled', 'canceled');
+
+update orders_archive set status = case when lower(replace(trim(status), '_', ' ')) = 'canceled' then 'cancelled'
+                                        else lower(replace(trim(status), '_', ' ')) end
+where status not in ('waiting payment', 'paid', 'preparing', 'ready', 'completed', 'cancelled')
+  and lower(replace(trim(status), '_', ' ')) in ('waiting payment', 'paid', 'preparing', 'ready', 'completed', 'cancelled', 'canceled');
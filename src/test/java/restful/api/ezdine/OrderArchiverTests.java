@@ -0,0 +1,232 @@
+package restful.api.ezdine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import restful.api.ezdine.entity.CategoryEntity;
+import restful.api.ezdine.entity.FoodEntity;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderItemEntity;
+import restful.api.ezdine.entity.OrderStatus;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.repository.CategoryRepository;
+import restful.api.ezdine.repository.FoodRepository;
+import restful.api.ezdine.repository.OrderItemRepository;
+import restful.api.ezdine.repository.OrderRepository;
+import restful.api.ezdine.repository.RoleRepository;
+import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.service.OrderArchiver;
+
+// the schedule never fires within a test run, each test calls archive() itself; two orders per batch
+// so a run always takes more than one
+@SpringBootTest(properties = {
+    "ezdine.orders.archive.enabled=true",
+    "ezdine.orders.archive.retention-days=30",
+    "ezdine.orders.archive.batch-size=2"
+})
+class OrderArchiverTests {
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String email = "test@gmail.com";
+
+    private final Instant expired = Instant.now().minus(Duration.ofDays(400));
+    private final Instant recent = Instant.now().minus(Duration.ofDays(1));
+
+    private UserEntity user;
+
+    private FoodEntity food;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate.update("delete from order_items_archive");
+        jdbcTemplate.update("delete from orders_archive");
+
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        foodRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword("rahasia");
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        CategoryEntity category = new CategoryEntity();
+        category.setName("appetizer");
+        category.setUserEntity(user);
+        categoryRepository.save(category);
+
+        food = new FoodEntity();
+        food.setCode("spaghetti");
+        food.setName("spaghetti bolognese");
+        food.setPrice(20.0);
+        food.setStock(10);
+        food.setCategoryEntity(category);
+        foodRepository.save(food);
+    }
+
+    @Test
+    void testArchiveMovesClosedExpiredOrders() {
+        OrderEntity completed = newOrder(OrderStatus.COMPLETED, expired, 2);
+        OrderEntity cancelled = newOrder(OrderStatus.CANCELLED, expired.plusSeconds(60), 1);
+        OrderEntity open = newOrder(OrderStatus.PAID, expired, 1);
+        OrderEntity fresh = newOrder(OrderStatus.COMPLETED, recent, 1);
+
+        String completedRow = orderRow(completed);
+        List<String> completedItems = itemRows(completed);
+        String cancelledRow = orderRow(cancelled);
+        List<String> cancelledItems = itemRows(cancelled);
+
+        orderArchiver.archive();
+
+        assertEquals(List.of(open.getId(), fresh.getId()), hotOrderIds());
+        assertEquals(List.of(completed.getId(), cancelled.getId()), archivedOrderIds());
+
+        // every column comes across unchanged, only archived_at is added
+        assertEquals(completedRow, archivedOrderRow(completed));
+        assertEquals(completedItems, archivedItemRows(completed));
+        assertEquals(cancelledRow, archivedOrderRow(cancelled));
+        assertEquals(cancelledItems, archivedItemRows(cancelled));
+
+        assertEquals(2, orderItemRepository.count());
+    }
+
+    @Test
+    void testArchiveKeepsUnknownLegacyStatus() {
+        OrderEntity legacy = newOrder(OrderStatus.COMPLETED, expired, 1);
+        jdbcTemplate.update("update orders set status = 'done' where id = ?", legacy.getId());
+
+        orderArchiver.archive();
+
+        assertEquals(List.of(legacy.getId()), hotOrderIds());
+        assertEquals(List.of(), archivedOrderIds());
+    }
+
+    @Test
+    void testArchiveFailedBatchLosesNoRows() {
+        OrderEntity first = newOrder(OrderStatus.COMPLETED, expired, 1);
+        OrderEntity second = newOrder(OrderStatus.COMPLETED, expired.plusSeconds(60), 1);
+        OrderEntity third = newOrder(OrderStatus.COMPLETED, expired.plusSeconds(120), 2);
+
+        String thirdRow = orderRow(third);
+        List<String> thirdItems = itemRows(third);
+
+        // the second batch fails after its items were already moved
+        jdbcTemplate.execute("create or replace function fail_order_archive() returns trigger as $$ "
+                                + "begin raise exception 'archive failed'; end $$ language plpgsql");
+        jdbcTemplate.execute("create trigger fail_order_archive before insert on orders_archive for each row "
+                                + "when (new.id = " + third.getId() + ") execute function fail_order_archive()");
+
+        try {
+            assertThrows(DataAccessException.class, () -> orderArchiver.archive());
+        } finally {
+            jdbcTemplate.execute("drop trigger fail_order_archive on orders_archive");
+            jdbcTemplate.execute("drop function fail_order_archive()");
+        }
+
+        // the first batch committed on its own, the failed one is back in the hot tables as it was
+        assertEquals(List.of(first.getId(), second.getId()), archivedOrderIds());
+        assertEquals(List.of(third.getId()), hotOrderIds());
+        assertEquals(thirdRow, orderRow(third));
+        assertEquals(thirdItems, itemRows(third));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from order_items_archive where order_id = ?", Integer.class, third.getId()));
+
+        orderArchiver.archive();
+
+        assertEquals(List.of(), hotOrderIds());
+        assertEquals(thirdItems, archivedItemRows(third));
+    }
+
+    private OrderEntity newOrder(OrderStatus status, Instant placedAt, int items) {
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(placedAt);
+        order.setSubTotal(20 * items);
+        order.setTax(2.0 * items);
+        order.setTotalPrice(22 * items);
+        order.setStatus(status);
+        orderRepository.save(order);
+
+        for (int i = 0; i < items; i++) {
+            OrderItemEntity item = new OrderItemEntity();
+            item.setQuantity(1);
+            item.setSubTotal(20);
+            item.setFoodEntity(food);
+            item.setOrderEntity(order);
+            orderItemRepository.save(item);
+        }
+
+        return order;
+    }
+
+    private List<Integer> hotOrderIds() {
+        return jdbcTemplate.queryForList("select id from orders order by id", Integer.class);
+    }
+
+    private List<Integer> archivedOrderIds() {
+        return jdbcTemplate.queryForList("select id from orders_archive order by id", Integer.class);
+    }
+
+    private String orderRow(OrderEntity order) {
+        return jdbcTemplate.queryForObject("select to_jsonb(o)::text from orders o where id = ?", String.class, order.getId());
+    }
+
+    private String archivedOrderRow(OrderEntity order) {
+        return jdbcTemplate.queryForObject("select (to_jsonb(o) - 'archived_at')::text from orders_archive o where id = ?",
+                                String.class, order.getId());
+    }
+
+    private List<String> itemRows(OrderEntity order) {
+        return jdbcTemplate.queryForList("select to_jsonb(i)::text from order_items i where order_id = ? order by id",
+                                String.class, order.getId());
+    }
+
+    private List<String> archivedItemRows(OrderEntity order) {
+        return jdbcTemplate.queryForList("select (to_jsonb(i) - 'archived_at')::text from order_items_archive i where order_id = ? order by id",
+                                String.class, order.getId());
+    }
+}
@@ -0,0 +1,107 @@
+package restful.api.ezdine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+// upgrades a database the way production has one: built by ddl-auto before Flyway, then baselined at version 1
+@SpringBootTest
+class SchemaMigrationTests {
+
+    private static final String SCHEMA = "legacy_migration_test";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ezdine.reports.zone}")
+    private String reportZone;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+        jdbcTemplate.execute("create schema " + SCHEMA);
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set search_path to " + SCHEMA);
+            }
+
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline.sql"));
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into roles (name) values ('ROLE_ADMIN')");
+                statement.execute("insert into users (id, email) values (1, 'legacy@gmail.com')");
+                statement.execute("insert into category (id, name, user_id) values (1, 'appetizer', 1)");
+                statement.execute("insert into foods (id, code, name, price, stock, category_id) "
+                                    + "values (1, 'spaghetti', 'spaghetti bolognese', 20.0, 10, 1)");
+                statement.execute("insert into orders (id, order_id, date, subtotal, tax, total_price, status, created_at, user_id) values "
+                                    + "(1, '9b2f1f7e-6a8c-4a4e-9d35-2f0b7f6c1a11', 'Mon Oct 19 18:34:15 UTC 2026', 40, 4.0, 44, 'paid', '2026-10-20 09:00:00', 1), "
+                                    + "(2, '0c5e8e55-2d0b-4f5e-8f0f-3b9c7d2e4b22', 'Tue Oct 20 08:00:00 WIB 2026', 20, 2.0, 22, 'waiting payment', '2026-10-20 01:00:00', 1)");
+                statement.execute("insert into order_items (id, quantity, sub_total, food_id, order_id) values "
+                                    + "(1, 2, 40, 1, 1), (2, 1, 20, 1, 2)");
+                statement.execute("set search_path to public");
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop schema if exists " + SCHEMA + " cascade");
+    }
+
+    @Test
+    void testMigrateLegacySchema() {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .placeholders(Map.of("reportZone", reportZone))
+                .load()
+                .migrate();
+
+        List<String> versions = jdbcTemplate.queryForList(
+                "select version from " + SCHEMA + ".flyway_schema_history where success order by installed_rank", String.class);
+        assertEquals(List.of("1", "2", "3", "4", "5"), versions);
+
+        assertEquals("uuid", jdbcTemplate.queryForObject(
+                "select data_type from information_schema.columns where table_schema = ? and table_name = 'orders' and column_name = 'order_id'",
+                String.class, SCHEMA));
+
+        // parsed from the legacy date string, and from created_at where its zone is unknown to Postgres
+        assertEquals("2026-10-19T18:34:15Z", jdbcTemplate.queryForObject(
+                "select to_char(placed_at at time zone 'UTC', 'YYYY-MM-DD\"T\"HH24:MI:SS\"Z\"') from " + SCHEMA + ".orders where id = 1", String.class));
+        assertEquals("2026-10-20T01:00:00Z", jdbcTemplate.queryForObject(
+                "select to_char(placed_at at time zone 'UTC', 'YYYY-MM-DD\"T\"HH24:MI:SS\"Z\"') from " + SCHEMA + ".orders where id = 2", String.class));
+
+        assertEquals(0, jdbcTemplate.queryForObject("select sum(priority + version) from " + SCHEMA + ".orders", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select version from " + SCHEMA + ".foods where id = 1", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select sum(version) from " + SCHEMA + ".order_items", Integer.class));
+
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from " + SCHEMA + ".roles", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from " + SCHEMA + ".idempotency_keys", Integer.class));
+
+        // the two orders fall on different report days, each seeded from its items
+        assertEquals(List.of(40L, 20L), jdbcTemplate.queryForList(
+                "select revenue from " + SCHEMA + ".sales_daily_rollup order by day", Long.class));
+    }
+}
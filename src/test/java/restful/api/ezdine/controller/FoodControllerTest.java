@@ -1,6 +1,7 @@
 package restful.api.ezdine.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +30,7 @@ import restful.api.ezdine.model.FoodResponse;
 import restful.api.ezdine.model.RegisterFoodRequest;
 import restful.api.ezdine.model.UpdateFoodRequest;
 import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.monitoring.SqlStatistics;
 import restful.api.ezdine.repository.CategoryRepository;
 import restful.api.ezdine.repository.FoodRepository;
 import restful.api.ezdine.repository.RoleRepository;
@@ -520,6 +522,61 @@ public class FoodControllerTest {
         });
     }
 
+    @Test
+    void testGetFoodStatementBudget() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        CategoryEntity category = categoryRepository.findByName(categoryName).orElse(null);
+
+        FoodEntity food = new FoodEntity();
+        food.setCode(foodCode);
+        food.setName(foodName);
+        food.setPrice(foodPrice);
+        food.setStock(foodStock);
+        food.setCategoryEntity(category);
+        foodRepository.save(food);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        // token expiry, principal with role ids, caller id, then category and food by id
+        mockMvc.perform(
+                get("/api/categories/" + category.getId() + "/foods/" + food.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)                        
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+            SqlStatistics statistics = (SqlStatistics) result.getRequest().getAttribute(SqlStatistics.REQUEST_ATTRIBUTE);
+
+            assertTrue(statistics.getStatements() <= 5);
+        });
+
+        // the category now comes from the second-level cache, the food still from the database
+        mockMvc.perform(
+                get("/api/categories/" + category.getId() + "/foods/" + food.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)                        
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+            SqlStatistics statistics = (SqlStatistics) result.getRequest().getAttribute(SqlStatistics.REQUEST_ATTRIBUTE);
+
+            assertTrue(statistics.getStatements() <= 4);
+        });
+    }
+
     @Test
     void testGetFoodBadCategory() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
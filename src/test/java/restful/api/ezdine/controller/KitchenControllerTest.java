@@ -0,0 +1,400 @@
+package restful.api.ezdine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.KitchenTicketResponse;
+import restful.api.ezdine.model.OrderResponse;
+import restful.api.ezdine.model.UpdateOrderPriorityRequest;
+import restful.api.ezdine.model.UpdateOrderRequest;
+import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.repository.OrderItemRepository;
+import restful.api.ezdine.repository.OrderRepository;
+import restful.api.ezdine.repository.RoleRepository;
+import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.security.JwtUtil;
+import restful.api.ezdine.security.SecurityConstants;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class KitchenControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String email = "test@gmail.com";
+    private final String password = "rahasia";
+
+    private final Integer subTotal = 100;
+    private final Double tax = 10.0;
+    private final Integer totalPrice = 110;
+    private final String status = "waiting payment";
+
+    @BeforeEach
+    void setUp() {                
+
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));        
+        userRepository.save(user);
+    }
+
+    @Test
+    void testGetKitchenQueueSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        UpdateOrderRequest request = new UpdateOrderRequest();
+        request.setStatus("paid");
+
+        mockMvc.perform(
+                patch("/api/orders/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        // the queue is updated by its writer thread after commit, give it a moment
+        boolean found = false;
+
+        for (int attempt = 0; attempt < 50 && !found; attempt++) {
+            String content = mockMvc.perform(
+                    get("/api/kitchen/queue")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("Authorization", mockBearerToken)
+            ).andExpectAll(
+                    status().isOk()
+            ).andReturn().getResponse().getContentAsString();
+
+            WebResponse<List<KitchenTicketResponse>> response = objectMapper.readValue(content, new TypeReference<>() {
+            });
+
+            found = response.getData().stream().anyMatch(p -> p.getId().equals(order.getId()) && p.getStatus().equals(OrderStatus.PAID.getLabel()));
+
+            if (!found) {
+                Thread.sleep(100);
+            }
+        }
+
+        assertTrue(found);
+    }
+
+    @Test
+    void testPrioritizeSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        UpdateOrderRequest request = new UpdateOrderRequest();
+        request.setStatus("paid");
+
+        mockMvc.perform(
+                patch("/api/orders/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        UpdateOrderPriorityRequest priorityRequest = new UpdateOrderPriorityRequest();
+        priorityRequest.setPriority(5);
+
+        mockMvc.perform(
+                patch("/api/kitchen/queue/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(priorityRequest))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+        });
+
+        assertEquals(5, orderRepository.findById(order.getId()).get().getPriority());
+
+        // the queue is updated by its writer thread after commit, give it a moment
+        boolean found = false;
+
+        for (int attempt = 0; attempt < 50 && !found; attempt++) {
+            String content = mockMvc.perform(
+                    get("/api/kitchen/queue")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("Authorization", mockBearerToken)
+            ).andExpectAll(
+                    status().isOk()
+            ).andReturn().getResponse().getContentAsString();
+
+            WebResponse<List<KitchenTicketResponse>> response = objectMapper.readValue(content, new TypeReference<>() {
+            });
+
+            found = response.getData().stream().anyMatch(p -> p.getId().equals(order.getId()) && p.getPriority() == 5);
+
+            if (!found) {
+                Thread.sleep(100);
+            }
+        }
+
+        assertTrue(found);
+    }
+
+    @Test
+    void testPrioritizeNotFound() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        UpdateOrderPriorityRequest request = new UpdateOrderPriorityRequest();
+        request.setPriority(5);
+
+        mockMvc.perform(
+                patch("/api/kitchen/queue/999999")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isNotFound()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testGetKitchenQueueBadLimit() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/kitchen/queue")
+                        .param("limit", "0")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<List<KitchenTicketResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testGetKitchenQueueStream() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/kitchen/queue/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk(),
+                request().asyncStarted()
+        );
+    }
+
+    @Test
+    void testGetKitchenQueueBadRole() throws Exception {
+        RoleEntity role = roleRepository.findByName("ROLE_USER").orElse(null);
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        user.setRoles(Collections.singletonList(role));        
+        userRepository.save(user);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/kitchen/queue")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isForbidden()
+        ).andDo(result -> {
+                WebResponse<List<KitchenTicketResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testGetKitchenQueueNoToken() throws Exception {
+        mockMvc.perform(
+                get("/api/kitchen/queue")
+                        .accept(MediaType.APPLICATION_JSON)
+        ).andExpectAll(
+                status().isForbidden()
+        ).andDo(result -> {
+                WebResponse<List<KitchenTicketResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+}
@@ -1,10 +1,13 @@
 package restful.api.ezdine.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -16,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -26,8 +30,10 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
 import restful.api.ezdine.entity.RoleEntity;
 import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.CursorPageResponse;
 import restful.api.ezdine.model.OrderResponse;
 import restful.api.ezdine.model.RegisterOrderRequest;
 import restful.api.ezdine.model.UpdateOrderRequest;
@@ -37,6 +43,7 @@ import restful.api.ezdine.repository.RoleRepository;
 import restful.api.ezdine.repository.UserRepository;
 import restful.api.ezdine.security.JwtUtil;
 import restful.api.ezdine.security.SecurityConstants;
+import restful.api.ezdine.service.UuidV7;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
@@ -69,6 +76,9 @@ public class OrderControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private final String email = "test@gmail.com";
     private final String password = "rahasia";
 
@@ -97,9 +107,6 @@ public class OrderControllerTest {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
 
         RegisterOrderRequest request = new RegisterOrderRequest();
-        request.setSubTotal(subTotal);
-        request.setTax(tax);
-        request.setTotalPrice(totalPrice);
         request.setStatus(status);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -128,21 +135,118 @@ public class OrderControllerTest {
             });
 
             assertEquals(true, response.getStatus());
-            assertEquals(request.getSubTotal(), response.getData().getSubTotal());
-            assertEquals(request.getTax(), response.getData().getTax());
-            assertEquals(request.getTotalPrice(), response.getData().getTotalPrice());
+            assertEquals(0, response.getData().getSubTotal());
+            assertEquals(0.0, response.getData().getTax());
+            assertEquals(0, response.getData().getTotalPrice());
             assertEquals(request.getStatus(), response.getData().getStatus());
         });
     }
 
+    @Test
+    void testRegisterOrderIdempotent() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        RegisterOrderRequest request = new RegisterOrderRequest();
+        request.setStatus(status);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+        String idempotencyKey = UUID.randomUUID().toString();
+        List<UUID> orderIds = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(
+                    post("/api/orders")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header("Authorization", mockBearerToken)
+                            .header("Idempotency-Key", idempotencyKey)
+            ).andExpectAll(
+                    status().isOk()
+            ).andDo(result -> {
+                    WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                });
+
+                assertEquals(true, response.getStatus());
+                orderIds.add(response.getData().getOrderId());
+            });
+        }
+
+        assertEquals(orderIds.get(0), orderIds.get(1));
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void testRegisterOrderIdempotentDifferentBody() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        RegisterOrderRequest request = new RegisterOrderRequest();
+        request.setStatus(status);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        mockMvc.perform(
+                post("/api/orders")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header("Idempotency-Key", idempotencyKey)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        RegisterOrderRequest otherRequest = new RegisterOrderRequest();
+        otherRequest.setStatus("paid");
+
+        mockMvc.perform(
+                post("/api/orders")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherRequest))
+                        .header("Authorization", mockBearerToken)
+                        .header("Idempotency-Key", idempotencyKey)
+        ).andExpectAll(
+                status().isUnprocessableEntity()
+        ).andDo(result -> {
+                WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+            assertEquals("Idempotency key already used for another request", response.getErrors());
+        });
+
+        assertEquals(1, orderRepository.count());
+    }
+
     @Test
     void testRegisterOrderBlank() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
 
         RegisterOrderRequest request = new RegisterOrderRequest();
-        request.setSubTotal(null);
-        request.setTax(null);
-        request.setTotalPrice(null);
         request.setStatus("");
 
         Authentication authentication = authenticationManager.authenticate(
@@ -179,9 +283,6 @@ public class OrderControllerTest {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
 
         RegisterOrderRequest request = new RegisterOrderRequest();
-        request.setSubTotal(subTotal);
-        request.setTax(tax);
-        request.setTotalPrice(totalPrice);
         request.setStatus(status);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -218,9 +319,6 @@ public class OrderControllerTest {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
 
         RegisterOrderRequest request = new RegisterOrderRequest();
-        request.setSubTotal(subTotal);
-        request.setTax(tax);
-        request.setTotalPrice(totalPrice);
         request.setStatus(status);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -257,9 +355,6 @@ public class OrderControllerTest {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
 
         RegisterOrderRequest request = new RegisterOrderRequest();
-        request.setSubTotal(subTotal);
-        request.setTax(tax);
-        request.setTotalPrice(totalPrice);
         request.setStatus(status);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -296,12 +391,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -332,7 +427,244 @@ public class OrderControllerTest {
             assertEquals(order.getSubTotal(), response.getData().getSubTotal());
             assertEquals(order.getTax(), response.getData().getTax());
             assertEquals(order.getTotalPrice(), response.getData().getTotalPrice());
-            assertEquals(order.getStatus(), response.getData().getStatus());            
+            assertEquals(order.getStatus().getLabel(), response.getData().getStatus());            
+        });
+    }
+
+    @Test
+    void testGetOrderUnknownLegacyStatus() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        jdbcTemplate.update("update orders set status = 'on hold' where id = ?", order.getId());
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/orders/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(OrderStatus.UNKNOWN.getLabel(), response.getData().getStatus());
+        });
+    }
+
+    @Test
+    void testGetOrderNullStatus() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        jdbcTemplate.update("update orders set status = null where id = ?", order.getId());
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/orders/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertNull(response.getData().getStatus());
+        });
+    }
+
+    @Test
+    void testUpdateOrderUnknownLegacyStatus() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        jdbcTemplate.update("update orders set status = 'on hold' where id = ?", order.getId());
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        UpdateOrderRequest request = new UpdateOrderRequest();
+        request.setStatus("paid");
+
+        mockMvc.perform(
+                patch("/api/orders/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isConflict()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+
+        // the legacy label is left exactly as it was
+        assertEquals("on hold", jdbcTemplate.queryForObject("select status from orders where id = ?", String.class, order.getId()));
+    }
+
+    @Test
+    void testGetOrderByRefSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UuidV7.generate());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/orders/by-ref/" + order.getOrderId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)                        
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(order.getId(), response.getData().getId());
+            assertEquals(order.getOrderId(), response.getData().getOrderId());
+        });
+    }
+
+    @Test
+    void testGetOrderByRefBadRef() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UuidV7.generate());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/orders/by-ref/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)                        
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
         });
     }
 
@@ -344,12 +676,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -388,12 +720,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -432,12 +764,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -476,12 +808,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -520,12 +852,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -561,12 +893,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -590,7 +922,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(true, response.getStatus());            
@@ -605,12 +937,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -634,7 +966,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isUnauthorized()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(false, response.getStatus());          
@@ -649,12 +981,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -678,7 +1010,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isForbidden()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(false, response.getStatus());          
@@ -693,12 +1025,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -719,7 +1051,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isForbidden()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(false, response.getStatus());          
@@ -734,12 +1066,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -763,13 +1095,82 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isOk()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(true, response.getStatus());            
+            assertNotNull(response.getData().getTotalEstimate());
         });
     }    
 
+    @Test
+    void testGetListOrderPaged() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        for (int i = 0; i < 3; i++) {
+            OrderEntity order = new OrderEntity();
+            order.setUserEntity(user);
+            order.setOrderId(UUID.randomUUID());
+            order.setPlacedAt(new Date().toInstant());
+            order.setSubTotal(subTotal);
+            order.setTax(tax);
+            order.setTotalPrice(totalPrice);
+            order.setStatus(OrderStatus.fromLabel(status));
+            orderRepository.save(order);
+        }
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+        List<String> cursors = new ArrayList<>();
+
+        mockMvc.perform(
+                get("/api/orders")
+                        .param("size", "2")
+                        .param("status", status)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(2, response.getData().getItems().size());
+            assertNotNull(response.getData().getNextCursor());
+            assertNull(response.getData().getTotalEstimate());
+            cursors.add(response.getData().getNextCursor());
+        });
+
+        mockMvc.perform(
+                get("/api/orders")
+                        .param("size", "2")
+                        .param("status", status)
+                        .param("cursor", cursors.get(0))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(1, response.getData().getItems().size());
+            assertNull(response.getData().getNextCursor());
+        });
+    }
+
     @Test
     void testGetListOrderInvalidToken() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
@@ -778,12 +1179,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -807,7 +1208,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isUnauthorized()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(false, response.getStatus());          
@@ -822,12 +1223,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -851,7 +1252,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isForbidden()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(false, response.getStatus());          
@@ -866,12 +1267,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -892,7 +1293,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isForbidden()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(false, response.getStatus());          
@@ -911,12 +1312,12 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         Authentication authentication = authenticationManager.authenticate(
@@ -940,7 +1341,7 @@ public class OrderControllerTest {
         ).andExpectAll(
                 status().isForbidden()
         ).andDo(result -> {
-                WebResponse<List<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
             });
 
             assertEquals(false, response.getStatus());          
@@ -955,18 +1356,15 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         UpdateOrderRequest request = new UpdateOrderRequest();
-        request.setSubTotal(subTotal + 10);
-        request.setTax(tax + 0.35);
-        request.setTotalPrice(totalPrice + 10);
         request.setStatus("Paid");
 
         Authentication authentication = authenticationManager.authenticate(
@@ -995,11 +1393,100 @@ public class OrderControllerTest {
             });
 
             assertEquals(true, response.getStatus());
-            assertEquals(request.getSubTotal(), response.getData().getSubTotal());
-            assertEquals(request.getTax(), response.getData().getTax());
-            assertEquals(request.getTotalPrice(), response.getData().getTotalPrice());
-            assertEquals(request.getStatus(), response.getData().getStatus());
+            assertEquals(order.getSubTotal(), response.getData().getSubTotal());
+            assertEquals(order.getTax(), response.getData().getTax());
+            assertEquals(order.getTotalPrice(), response.getData().getTotalPrice());
+            assertEquals(OrderStatus.PAID.getLabel(), response.getData().getStatus());
+        });
+    }
+
+    @Test
+    void testUpdateOrderInvalidTransition() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        UpdateOrderRequest request = new UpdateOrderRequest();
+        request.setStatus("completed");
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                patch("/api/orders/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isConflict()
+        ).andDo(result -> {
+                WebResponse<OrderResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
         });
+
+        assertEquals(OrderStatus.WAITING_PAYMENT, orderRepository.findById(order.getId()).get().getStatus());
+    }
+
+    @Test
+    void testOrderEventsSubscribe() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/orders/" + order.getId() + "/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk(),
+                request().asyncStarted()
+        );
     }
 
     @Test
@@ -1010,18 +1497,15 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         UpdateOrderRequest request = new UpdateOrderRequest();
-        request.setSubTotal(subTotal + 10);
-        request.setTax(tax + 0.35);
-        request.setTotalPrice(totalPrice + 10);
         request.setStatus("Paid");
 
         Authentication authentication = authenticationManager.authenticate(
@@ -1061,18 +1545,15 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         UpdateOrderRequest request = new UpdateOrderRequest();
-        request.setSubTotal(subTotal + 10);
-        request.setTax(tax + 0.35);
-        request.setTotalPrice(totalPrice + 10);
         request.setStatus("Paid");
 
         Authentication authentication = authenticationManager.authenticate(
@@ -1112,18 +1593,15 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         UpdateOrderRequest request = new UpdateOrderRequest();
-        request.setSubTotal(subTotal + 10);
-        request.setTax(tax + 0.35);
-        request.setTotalPrice(totalPrice + 10);
         request.setStatus("Paid");
 
         Authentication authentication = authenticationManager.authenticate(
@@ -1163,18 +1641,15 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         UpdateOrderRequest request = new UpdateOrderRequest();
-        request.setSubTotal(subTotal + 10);
-        request.setTax(tax + 0.35);
-        request.setTotalPrice(totalPrice + 10);
         request.setStatus("Paid");
 
         Authentication authentication = authenticationManager.authenticate(
@@ -1214,18 +1689,15 @@ public class OrderControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         UpdateOrderRequest request = new UpdateOrderRequest();
-        request.setSubTotal(subTotal + 10);
-        request.setTax(tax + 0.35);
-        request.setTotalPrice(totalPrice + 10);
         request.setStatus("Paid");
 
         Authentication authentication = authenticationManager.authenticate(
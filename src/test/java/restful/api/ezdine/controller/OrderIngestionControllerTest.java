@@ -0,0 +1,230 @@
+package restful.api.ezdine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.OrderIngestionResponse;
+import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.repository.OrderRepository;
+import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.repository.RoleRepository;
+import restful.api.ezdine.security.JwtUtil;
+import restful.api.ezdine.security.SecurityConstants;
+import restful.api.ezdine.service.OrderIngestionQueue;
+import restful.api.ezdine.service.UuidV7;
+
+@EnableWebMvc
+@SpringBootTest(properties = "ezdine.orders.ingestion.enabled=true")
+@AutoConfigureMockMvc
+public class OrderIngestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderIngestionQueue orderIngestionQueue;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String email = "test@gmail.com";
+    private final String password = "rahasia";
+
+    private final Integer subTotal = 100;
+    private final Double tax = 10.0;
+    private final Integer totalPrice = 110;
+    private final String status = "waiting payment";
+
+    @BeforeEach
+    void setUp() {
+
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+    }
+
+    @Test
+    void testIngestionBatchFailureFallsBackToSingleRows() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        UserEntity missingUser = new UserEntity();
+        missingUser.setId(-1);
+
+        OrderEntity first = newOrder(user);
+        OrderEntity valid = newOrder(user);
+        OrderEntity invalid = newOrder(missingUser);
+
+        DistributionSummary batchSizes = meterRegistry.get("ezdine.orders.ingestion.batch.size").summary();
+        long batches = batchSizes.count();
+        double batchedOrders = batchSizes.totalAmount();
+
+        // the writer stalls on the first order behind a held user row, so the next two queue up
+        // and are written together as one batch that the unknown user makes fail
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement("select id from users where id = ? for update")) {
+                ps.setInt(1, user.getId());
+                ps.executeQuery();
+            }
+
+            orderIngestionQueue.submit(first, email);
+
+            awaitBlockedSession();
+
+            orderIngestionQueue.submit(valid, email);
+            orderIngestionQueue.submit(invalid, email);
+
+            connection.commit();
+        }
+
+        String mockBearerToken = login();
+
+        OrderIngestionResponse validState = ingestion(valid.getOrderId(), mockBearerToken);
+        assertEquals("PERSISTED", validState.getState());
+        assertEquals(valid.getOrderId(), validState.getOrder().getOrderId());
+
+        OrderIngestionResponse invalidState = ingestion(invalid.getOrderId(), mockBearerToken);
+        assertEquals("FAILED", invalidState.getState());
+        assertNull(invalidState.getOrder());
+
+        assertEquals(batches + 2, batchSizes.count());
+        assertEquals(batchedOrders + 3, batchSizes.totalAmount());
+        assertEquals(2, orderRepository.count());
+    }
+
+    private OrderEntity newOrder(UserEntity user) {
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UuidV7.generate());
+        order.setPlacedAt(new Date().toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        order.setPriority(0);
+        return order;
+    }
+
+    private OrderIngestionResponse ingestion(UUID orderId, String mockBearerToken) throws Exception {
+        MvcResult pending = mockMvc.perform(
+                get("/api/orders/ingestion/" + orderId)
+                        .param("waitMs", "5000")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        WebResponse<OrderIngestionResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+        });
+
+        assertEquals(true, response.getStatus());
+
+        return response.getData();
+    }
+
+    private String login() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        return "Bearer " + mockToken;
+    }
+
+    private void awaitBlockedSession() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                    "select count(*) from pg_stat_activity where datname = current_database() and wait_event_type = 'Lock'",
+                    Integer.class);
+
+            if (waiting > 0) {
+                return;
+            }
+
+            Thread.sleep(50);
+        }
+
+        throw new IllegalStateException("No session blocked on the user row");
+    }
+}
@@ -5,10 +5,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,23 +26,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import restful.api.ezdine.entity.CategoryEntity;
 import restful.api.ezdine.entity.FoodEntity;
 import restful.api.ezdine.entity.OrderEntity;
 import restful.api.ezdine.entity.OrderItemEntity;
+import restful.api.ezdine.entity.OrderStatus;
 import restful.api.ezdine.entity.RoleEntity;
 import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.CursorPageResponse;
 import restful.api.ezdine.model.OrderItemResponse;
+import restful.api.ezdine.model.OrderResponse;
 import restful.api.ezdine.model.RegisterOrderItemRequest;
 import restful.api.ezdine.model.WebResponse;
 import restful.api.ezdine.repository.CategoryRepository;
@@ -82,6 +99,18 @@ public class OrderItemControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private final String email = "test@gmail.com";
     private final String password = "rahasia";
 
@@ -95,11 +124,13 @@ public class OrderItemControllerTest {
     private final String foodCode = "spaghetti";
     private final String foodName = "spaghetti bolognese";
     private final Double foodPrice = 20.0;
-    private final Integer foodStock = 0;
+    private final Integer foodStock = 10;
 
     private final Integer itemQuantity = 2;
     private final Integer itemSubTotal = 100;
 
+    private final Integer concurrentSubTotal = 50;
+
     @BeforeEach
     void setUp() {                
 
@@ -140,19 +171,83 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(itemQuantity);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/orders/" + order.getId() + "/items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<OrderItemResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());            
+            assertEquals(order.getId(), response.getData().getOrderId());
+            assertEquals(request.getFoodId(), Integer.toString(response.getData().getFoodId()));
+            assertEquals(food.getName(), response.getData().getFoodName());
+            assertEquals(request.getQuantity(), response.getData().getQuantity());            
+            assertEquals((int) Math.round(food.getPrice() * itemQuantity), response.getData().getSubTotal());
+
+            OrderEntity orderDb = orderRepository.findById(order.getId()).orElse(null);
+            assertEquals(order.getSubTotal() + response.getData().getSubTotal(), orderDb.getSubTotal());
+
+            FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+            assertEquals(foodStock - itemQuantity, foodDb.getStock());
+            assertEquals(food.getVersion(), foodDb.getVersion());
+        });
+    }
+
+    @Test
+    void testRegisterItemKeepsUnknownLegacyStatus() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
+        jdbcTemplate.update("update orders set status = 'on hold' where id = ?", order.getId());
+
         RegisterOrderItemRequest request = new RegisterOrderItemRequest();
         request.setOrderId(Integer.toString(order.getId())); 
         request.setFoodId(Integer.toString(food.getId()));
         request.setQuantity(itemQuantity);
-        request.setSubTotal(itemSubTotal);
 
         Authentication authentication = authenticationManager.authenticate(
                                             new UsernamePasswordAuthenticationToken(
@@ -184,10 +279,432 @@ public class OrderItemControllerTest {
             assertEquals(request.getFoodId(), Integer.toString(response.getData().getFoodId()));
             assertEquals(food.getName(), response.getData().getFoodName());
             assertEquals(request.getQuantity(), response.getData().getQuantity());            
-            assertEquals(request.getSubTotal(), response.getData().getSubTotal());
+            assertEquals((int) Math.round(food.getPrice() * itemQuantity), response.getData().getSubTotal());
+
+            OrderEntity orderDb = orderRepository.findById(order.getId()).orElse(null);
+            assertEquals(order.getSubTotal() + response.getData().getSubTotal(), orderDb.getSubTotal());
+            assertEquals(OrderStatus.UNKNOWN, orderDb.getStatus());
+        });
+
+        // the order row was rewritten for the new subtotal, but not its status
+        assertEquals("on hold", jdbcTemplate.queryForObject("select status from orders where id = ?", String.class, order.getId()));
+    }
+
+    @Test
+    void testFoodEditKeepsConcurrentStockReservation() throws Exception {
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        // the edit reads the food, an order reserves stock from another connection, then the edit commits
+        transactionTemplate.executeWithoutResult(status -> {
+            FoodEntity editing = foodRepository.findById(food.getId()).orElse(null);
+            editing.setDescription("chef's special");
+
+            try (Connection connection = dataSource.getConnection()) {
+                try (PreparedStatement ps = connection.prepareStatement("update foods set stock = stock - ? where id = ?")) {
+                    ps.setInt(1, itemQuantity);
+                    ps.setInt(2, food.getId());
+                    ps.executeUpdate();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+        assertEquals("chef's special", foodDb.getDescription());
+        assertEquals(foodStock - itemQuantity, foodDb.getStock());
+        assertEquals(food.getVersion() + 1, foodDb.getVersion());
+    }
+
+    @Test
+    void testRegisterItemOutOfStock() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(foodStock + 1);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/orders/" + order.getId() + "/items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isConflict()
+        ).andDo(result -> {
+                WebResponse<OrderItemResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+
+            FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+            assertEquals(foodStock, foodDb.getStock());
         });
     }
 
+    @Test
+    void testRegisterItemConcurrentNoOversell() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        // one order per request, so the food row is the only thing the requests race on
+        int threads = 30;
+        List<OrderEntity> orders = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            OrderEntity order = new OrderEntity();
+            order.setUserEntity(user);
+            order.setOrderId(UUID.randomUUID());
+            order.setPlacedAt(new Date().toInstant());
+            order.setSubTotal(subTotal);
+            order.setTax(tax);
+            order.setTotalPrice(totalPrice);
+            order.setStatus(OrderStatus.fromLabel(status));
+            orders.add(orderRepository.save(order));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (OrderEntity order : orders) {
+            RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+            request.setOrderId(Integer.toString(order.getId()));
+            request.setFoodId(Integer.toString(food.getId()));
+            request.setQuantity(1);
+
+            futures.add(executor.submit(() -> {
+                start.await();
+
+                return mockMvc.perform(
+                        post("/api/orders/" + order.getId() + "/items")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                                .header("Authorization", mockBearerToken)
+                ).andReturn().getResponse().getStatus();
+            }));
+        }
+
+        start.countDown();
+
+        int accepted = 0;
+        int refused = 0;
+
+        for (Future<Integer> future : futures) {
+            int code = future.get();
+
+            if (code == 200) {
+                accepted++;
+            } else if (code == 409) {
+                refused++;
+            }
+        }
+
+        executor.shutdown();
+
+        assertEquals(foodStock, accepted);
+        assertEquals(threads - foodStock, refused);
+        assertEquals(accepted, orderItemRepository.count());
+
+        FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+        assertEquals(0, foodDb.getStock());
+    }
+
+    @Test
+    void testRegisterItemRetriedOnConcurrentOrderUpdate() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(itemQuantity);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        double conflicts = meterRegistry.counter("ezdine.optimistic.conflicts", "method", "OrderItemService.register(..)").count();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<MvcResult> future;
+
+        // a concurrent writer holds the order row, so the request's versioned update waits behind it
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "update orders set subtotal = subtotal + ?, version = version + 1 where id = ?")) {
+                ps.setInt(1, concurrentSubTotal);
+                ps.setInt(2, order.getId());
+                ps.executeUpdate();
+            }
+
+            future = executor.submit(() -> mockMvc.perform(
+                    post("/api/orders/" + order.getId() + "/items")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header("Authorization", mockBearerToken)
+            ).andReturn());
+
+            awaitBlockedSession();
+
+            connection.commit();
+        }
+
+        MvcResult result = future.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(conflicts + 1, meterRegistry.counter("ezdine.optimistic.conflicts", "method", "OrderItemService.register(..)").count());
+
+        WebResponse<OrderItemResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+        });
+
+        // the retry started from the concurrent writer's totals, so neither update is lost
+        OrderEntity orderDb = orderRepository.findById(order.getId()).orElse(null);
+        assertEquals(subTotal + concurrentSubTotal + response.getData().getSubTotal(), orderDb.getSubTotal());
+        assertEquals((int) Math.round(orderDb.getSubTotal() + orderDb.getTax()), orderDb.getTotalPrice());
+        assertEquals(1, orderItemRepository.findAllByOrderEntity(orderDb).size());
+
+        FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+        assertEquals(foodStock - itemQuantity, foodDb.getStock());
+    }
+
+    @Test
+    void testRegisterItemIdempotentRetryAfterCrash() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(itemQuantity);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<MvcResult> future;
+
+        // the request stops mid-transaction behind a held order row, and its session is killed
+        // there, as if the process had died after claiming the key and inserting the item
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement ps = connection.prepareStatement("select id from orders where id = ? for update")) {
+                ps.setInt(1, order.getId());
+                ps.executeQuery();
+            }
+
+            future = executor.submit(() -> mockMvc.perform(
+                    post("/api/orders/" + order.getId() + "/items")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header("Authorization", mockBearerToken)
+                            .header("Idempotency-Key", idempotencyKey)
+            ).andReturn());
+
+            awaitBlockedSession();
+
+            jdbcTemplate.queryForList("select pg_terminate_backend(pid) from pg_stat_activity "
+                                        + "where datname = current_database() and wait_event_type = 'Lock'");
+
+            future.get(10, TimeUnit.SECONDS);
+
+            connection.rollback();
+        }
+
+        executor.shutdown();
+
+        OrderEntity orderDb = orderRepository.findById(order.getId()).orElse(null);
+        assertEquals(0, orderItemRepository.findAllByOrderEntity(orderDb).size());
+
+        mockMvc.perform(
+                post("/api/orders/" + order.getId() + "/items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+                        .header("Idempotency-Key", idempotencyKey)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<OrderItemResponse> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(request.getQuantity(), response.getData().getQuantity());
+        });
+
+        assertEquals(1, orderItemRepository.findAllByOrderEntity(orderDb).size());
+
+        FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+        assertEquals(foodStock - itemQuantity, foodDb.getStock());
+    }
+
+    @Test
+    void testRegisterItemRetriesExhausted() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(itemQuantity);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        double conflicts = meterRegistry.counter("ezdine.optimistic.conflicts", "method", "OrderItemService.register(..)").count();
+
+        // every versioned update of this order touches no row, as if another writer always got there first
+        jdbcTemplate.execute("create or replace function skip_order_update() returns trigger as $$ begin return null; end $$ language plpgsql");
+        jdbcTemplate.execute("create trigger skip_order_update before update on orders for each row "
+                                + "when (old.id = " + order.getId() + ") execute function skip_order_update()");
+
+        try {
+            mockMvc.perform(
+                    post("/api/orders/" + order.getId() + "/items")
+                            .accept(MediaType.APPLICATION_JSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header("Authorization", mockBearerToken)                        
+            ).andExpectAll(
+                    status().isConflict()
+            ).andDo(result -> {
+                WebResponse<String> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+                });
+
+                assertEquals(false, response.getStatus());
+                assertEquals("Resource was modified concurrently, please retry", response.getErrors());
+            });
+        } finally {
+            jdbcTemplate.execute("drop trigger skip_order_update on orders");
+            jdbcTemplate.execute("drop function skip_order_update()");
+        }
+
+        assertEquals(conflicts + 3, meterRegistry.counter("ezdine.optimistic.conflicts", "method", "OrderItemService.register(..)").count());
+
+        // every attempt rolled back with its item and its reservation
+        OrderEntity orderDb = orderRepository.findById(order.getId()).orElse(null);
+        assertEquals(subTotal, orderDb.getSubTotal());
+        assertEquals(0, orderItemRepository.findAllByOrderEntity(orderDb).size());
+
+        FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+        assertEquals(foodStock, foodDb.getStock());
+    }
+
     @Test
     void testRegisterItemBlank() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
@@ -197,19 +714,18 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         RegisterOrderItemRequest request = new RegisterOrderItemRequest();
         request.setOrderId(Integer.toString(order.getId())); 
         request.setFoodId(Integer.toString(food.getId()));
         request.setQuantity(null);
-        request.setSubTotal(null);
 
         Authentication authentication = authenticationManager.authenticate(
                                             new UsernamePasswordAuthenticationToken(
@@ -249,19 +765,18 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         RegisterOrderItemRequest request = new RegisterOrderItemRequest();
         request.setOrderId(Integer.toString(order.getId())); 
         request.setFoodId(Integer.toString(food.getId()));
         request.setQuantity(null);
-        request.setSubTotal(null);
 
         Authentication authentication = authenticationManager.authenticate(
                                             new UsernamePasswordAuthenticationToken(
@@ -301,19 +816,18 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         RegisterOrderItemRequest request = new RegisterOrderItemRequest();
         request.setOrderId(Integer.toString(order.getId())); 
         request.setFoodId(Integer.toString(food.getId()));
         request.setQuantity(null);
-        request.setSubTotal(null);
 
         Authentication authentication = authenticationManager.authenticate(
                                             new UsernamePasswordAuthenticationToken(
@@ -353,19 +867,18 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         RegisterOrderItemRequest request = new RegisterOrderItemRequest();
         request.setOrderId(Integer.toString(order.getId())); 
         request.setFoodId(Integer.toString(food.getId()));
         request.setQuantity(itemQuantity);
-        request.setSubTotal(itemSubTotal);
 
         Authentication authentication = authenticationManager.authenticate(
                                             new UsernamePasswordAuthenticationToken(
@@ -405,19 +918,18 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         RegisterOrderItemRequest request = new RegisterOrderItemRequest();
         request.setOrderId(Integer.toString(order.getId())); 
         request.setFoodId(Integer.toString(food.getId()));
         request.setQuantity(itemQuantity);
-        request.setSubTotal(itemSubTotal);
 
         Authentication authentication = authenticationManager.authenticate(
                                             new UsernamePasswordAuthenticationToken(
@@ -457,19 +969,18 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         RegisterOrderItemRequest request = new RegisterOrderItemRequest();
         request.setOrderId(Integer.toString(order.getId())); 
         request.setFoodId(Integer.toString(food.getId()));
         request.setQuantity(itemQuantity);
-        request.setSubTotal(itemSubTotal);
 
         Authentication authentication = authenticationManager.authenticate(
                                             new UsernamePasswordAuthenticationToken(
@@ -506,12 +1017,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -564,12 +1075,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -616,12 +1127,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -668,12 +1179,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -720,12 +1231,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -772,12 +1283,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -824,12 +1335,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -876,12 +1387,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -925,12 +1436,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -968,6 +1479,63 @@ public class OrderItemControllerTest {
         });
     }
 
+    @Test
+    void testGetUserOrderEmbedItems() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        OrderItemEntity item = new OrderItemEntity();
+        item.setFoodEntity(food);
+        item.setOrderEntity(order);
+        item.setQuantity(itemQuantity);
+        item.setSubTotal(itemSubTotal);
+        orderItemRepository.save(item);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/users/orders")
+                        .param("embed", "items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)                        
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<CursorPageResponse<OrderResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(1, response.getData().getItems().size());
+            assertEquals(1, response.getData().getItems().get(0).getItems().size());
+            assertEquals(foodName, response.getData().getItems().get(0).getItems().get(0).getFoodName());
+            assertEquals(itemQuantity, response.getData().getItems().get(0).getItems().get(0).getQuantity());
+        });
+    }
+
     @Test
     void testGetListItemBadOrder() throws Exception {
         UserEntity user = userRepository.findByEmail(email).orElse(null);
@@ -977,12 +1545,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -1029,12 +1597,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -1081,12 +1649,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -1133,12 +1701,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -1185,12 +1753,12 @@ public class OrderItemControllerTest {
 
         OrderEntity order = new OrderEntity();
         order.setUserEntity(user);
-        order.setOrderId(UUID.randomUUID().toString());
-        order.setDate(date.toString());
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
         order.setSubTotal(subTotal);
         order.setTax(tax);
         order.setTotalPrice(totalPrice);
-        order.setStatus(status);
+        order.setStatus(OrderStatus.fromLabel(status));
         orderRepository.save(order);
 
         OrderItemEntity item = new OrderItemEntity();
@@ -1224,4 +1792,20 @@ public class OrderItemControllerTest {
             assertEquals(false, response.getStatus());
         });
     }
+
+    private void awaitBlockedSession() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                    "select count(*) from pg_stat_activity where datname = current_database() and wait_event_type = 'Lock'",
+                    Integer.class);
+
+            if (waiting > 0) {
+                return;
+            }
+
+            Thread.sleep(50);
+        }
+
+        throw new IllegalStateException("No session blocked on the order row");
+    }
 }
@@ -0,0 +1,310 @@
+package restful.api.ezdine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.ezdine.entity.CategoryEntity;
+import restful.api.ezdine.entity.FoodEntity;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.RegisterOrderItemRequest;
+import restful.api.ezdine.repository.CategoryRepository;
+import restful.api.ezdine.repository.FoodRepository;
+import restful.api.ezdine.repository.OrderItemRepository;
+import restful.api.ezdine.repository.OrderRepository;
+import restful.api.ezdine.repository.RoleRepository;
+import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.security.JwtUtil;
+import restful.api.ezdine.security.SecurityConstants;
+import restful.api.ezdine.service.StockLedger;
+
+// the scheduled flush only runs once at startup here, so each test decides when reservations reach the table
+@EnableWebMvc
+@SpringBootTest(properties = {
+    "ezdine.stock.oversell-bound=2",
+    "ezdine.stock.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+public class OrderItemHotStockControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    private final String email = "test@gmail.com";
+    private final String password = "rahasia";
+
+    private final Integer subTotal = 100;
+    private final Double tax = 10.0;
+    private final Integer totalPrice = 110;
+    private final String status = "waiting payment";
+
+    private final String categoryName = "appetizer";
+
+    private final String foodCode = "spaghetti";
+    private final String foodName = "spaghetti bolognese";
+    private final Double foodPrice = 20.0;
+    private final Integer foodStock = 10;
+
+    private final Integer oversellBound = 2;
+
+    @BeforeEach
+    void setUp() {
+
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        foodRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        CategoryEntity category = new CategoryEntity();
+        category.setName(categoryName);
+        category.setUserEntity(user);
+        categoryRepository.save(category);
+
+        FoodEntity food = new FoodEntity();
+        food.setCode(foodCode);
+        food.setName(foodName);
+        food.setPrice(foodPrice);
+        food.setStock(foodStock);
+        food.setCategoryEntity(category);
+        foodRepository.save(food);
+
+        stockLedger.track(food.getId());
+    }
+
+    @Test
+    void testRegisterHotItemConcurrentWithinOversellBound() throws Exception {
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+        String mockBearerToken = login();
+
+        int threads = 20;
+        List<OrderEntity> orders = new ArrayList<>();
+
+        // one order per request, so the only contention left is on the food's ledger cell
+        for (int i = 0; i < threads; i++) {
+            orders.add(newOrder());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (OrderEntity order : orders) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return registerItem(order, food, 1, mockBearerToken);
+            }));
+        }
+
+        start.countDown();
+
+        int accepted = 0;
+        int refused = 0;
+
+        for (Future<Integer> future : futures) {
+            int code = future.get();
+
+            if (code == 200) {
+                accepted++;
+            } else if (code == 409) {
+                refused++;
+            }
+        }
+
+        executor.shutdown();
+
+        assertEquals(foodStock + oversellBound, accepted);
+        assertEquals(threads - accepted, refused);
+        assertEquals(accepted, orderItemRepository.count());
+
+        stockLedger.flush();
+
+        FoodEntity foodDb = foodRepository.findById(food.getId()).orElse(null);
+        assertEquals(foodStock - accepted, foodDb.getStock());
+    }
+
+    @Test
+    void testRegisterHotItemOversellBoundReached() throws Exception {
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+        String mockBearerToken = login();
+
+        assertEquals(409, registerItem(newOrder(), food, foodStock + oversellBound + 1, mockBearerToken));
+        assertEquals(200, registerItem(newOrder(), food, foodStock + oversellBound, mockBearerToken));
+        assertEquals(409, registerItem(newOrder(), food, 1, mockBearerToken));
+    }
+
+    @Test
+    void testRegisterHotItemFlushedToFoodStock() throws Exception {
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+        String mockBearerToken = login();
+
+        assertEquals(200, registerItem(newOrder(), food, 3, mockBearerToken));
+
+        // reservations stay in the ledger until the next flush
+        assertEquals(foodStock, foodRepository.findStockById(food.getId()).orElse(null));
+
+        stockLedger.flush();
+
+        assertEquals(foodStock - 3, foodRepository.findStockById(food.getId()).orElse(null));
+
+        // stock added outside the ledger is picked up by the flush after it
+        jdbcTemplate.update("update foods set stock = stock + 5 where id = ?", food.getId());
+        stockLedger.flush();
+
+        int available = foodStock - 3 + 5;
+
+        assertEquals(200, registerItem(newOrder(), food, available + oversellBound, mockBearerToken));
+        assertEquals(409, registerItem(newOrder(), food, 1, mockBearerToken));
+
+        stockLedger.flush();
+
+        assertEquals(-oversellBound, foodRepository.findStockById(food.getId()).orElse(null));
+    }
+
+    @Test
+    void testRegisterHotItemRolledBackCompensated() throws Exception {
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+        OrderEntity order = newOrder();
+        String mockBearerToken = login();
+
+        // every versioned order update misses, so each attempt rolls back after reserving
+        jdbcTemplate.execute("create or replace function skip_hot_order_update() returns trigger as $$ begin return null; end $$ language plpgsql");
+        jdbcTemplate.execute("create trigger skip_hot_order_update before update on orders for each row "
+                                + "when (old.id = " + order.getId() + ") execute function skip_hot_order_update()");
+
+        try {
+            assertEquals(409, registerItem(order, food, foodStock, mockBearerToken));
+        } finally {
+            jdbcTemplate.execute("drop trigger skip_hot_order_update on orders");
+            jdbcTemplate.execute("drop function skip_hot_order_update()");
+        }
+
+        assertEquals(0, orderItemRepository.count());
+
+        stockLedger.flush();
+
+        assertEquals(foodStock, foodRepository.findStockById(food.getId()).orElse(null));
+
+        // the full stock is still there to reserve
+        assertEquals(200, registerItem(newOrder(), food, foodStock + oversellBound, mockBearerToken));
+    }
+
+    private OrderEntity newOrder() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(new Date().toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        return orderRepository.save(order);
+    }
+
+    private int registerItem(OrderEntity order, FoodEntity food, Integer quantity, String mockBearerToken) throws Exception {
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId()));
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(quantity);
+
+        return mockMvc.perform(
+                post("/api/orders/" + order.getId() + "/items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)
+        ).andReturn().getResponse().getStatus();
+    }
+
+    private String login() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        return "Bearer " + mockToken;
+    }
+}
@@ -0,0 +1,147 @@
+package restful.api.ezdine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import restful.api.ezdine.datasource.ReadReplicaRoutingDataSource;
+import restful.api.ezdine.datasource.ReplicaMonitor;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.repository.OrderRepository;
+import restful.api.ezdine.repository.RoleRepository;
+import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.security.JwtUtil;
+import restful.api.ezdine.security.SecurityConstants;
+
+// the "replica" is the primary database itself, which reports no lag; a negative bound puts even that over it
+@EnableWebMvc
+@SpringBootTest(properties = {
+    "ezdine.datasource.replica.url=${spring.datasource.url}",
+    "ezdine.datasource.replica.check-interval-ms=100",
+    "ezdine.datasource.replica.max-lag-ms=-1"
+})
+@AutoConfigureMockMvc
+public class OrderReplicaFallbackTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ReplicaMonitor replicaMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String email = "test@gmail.com";
+    private final String password = "rahasia";
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (replicaLag() < 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, replicaLag());
+        assertFalse(replicaMonitor.isAvailable());
+    }
+
+    @Test
+    void testUserOrderReadsFallBackToPrimary() throws Exception {
+        String mockBearerToken = login();
+
+        double replicaRoutes = replicaRoutes();
+        double fallbacks = fallbacks();
+
+        mockMvc.perform(
+                get("/api/users/orders")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        assertEquals(replicaRoutes, replicaRoutes());
+        assertEquals(fallbacks + 1, fallbacks());
+    }
+
+    private String login() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        return "Bearer " + mockToken;
+    }
+
+    private double replicaRoutes() {
+        return meterRegistry.counter("ezdine.datasource.routes", "target", ReadReplicaRoutingDataSource.REPLICA).count();
+    }
+
+    private double fallbacks() {
+        return meterRegistry.counter("ezdine.datasource.replica.fallbacks").count();
+    }
+
+    private double replicaLag() {
+        return meterRegistry.get("ezdine.datasource.replica.lag").gauge().value();
+    }
+}
@@ -0,0 +1,192 @@
+package restful.api.ezdine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import restful.api.ezdine.datasource.ReadReplicaRoutingDataSource;
+import restful.api.ezdine.datasource.ReplicaMonitor;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.repository.OrderRepository;
+import restful.api.ezdine.repository.RoleRepository;
+import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.security.JwtUtil;
+import restful.api.ezdine.security.SecurityConstants;
+
+// the "replica" is the primary database itself, so both pools see the same rows and only the route differs
+@EnableWebMvc
+@SpringBootTest(properties = {
+    "ezdine.datasource.replica.url=${spring.datasource.url}",
+    "ezdine.datasource.replica.check-interval-ms=100"
+})
+@AutoConfigureMockMvc
+public class OrderReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ReplicaMonitor replicaMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String email = "test@gmail.com";
+    private final String password = "rahasia";
+
+    private final Integer subTotal = 100;
+    private final Double tax = 10.0;
+    private final Integer totalPrice = 110;
+    private final String status = "waiting payment";
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));
+        userRepository.save(user);
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (!replicaMonitor.isAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(replicaMonitor.isAvailable());
+    }
+
+    @Test
+    void testUserOrderReadsFromReplica() throws Exception {
+        String mockBearerToken = login();
+
+        double replicaRoutes = replicaRoutes();
+
+        mockMvc.perform(
+                get("/api/users/orders")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        assertEquals(replicaRoutes + 1, replicaRoutes());
+    }
+
+    @Test
+    void testGetOrderReadsFromPrimary() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(new Date().toInstant());
+        order.setSubTotal(subTotal);
+        order.setTax(tax);
+        order.setTotalPrice(totalPrice);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        String mockBearerToken = login();
+
+        double replicaRoutes = replicaRoutes();
+
+        mockMvc.perform(
+                get("/api/orders/" + order.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/orders/by-ref/" + order.getOrderId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/orders/" + order.getId() + "/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Authorization", mockBearerToken)
+        ).andExpectAll(
+                status().isOk(),
+                request().asyncStarted()
+        );
+
+        assertEquals(replicaRoutes, replicaRoutes());
+    }
+
+    private String login() {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        return "Bearer " + mockToken;
+    }
+
+    private double replicaRoutes() {
+        return meterRegistry.counter("ezdine.datasource.routes", "target", ReadReplicaRoutingDataSource.REPLICA).count();
+    }
+}
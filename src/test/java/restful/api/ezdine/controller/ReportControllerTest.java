@@ -0,0 +1,419 @@
+package restful.api.ezdine.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import restful.api.ezdine.entity.CategoryEntity;
+import restful.api.ezdine.entity.FoodEntity;
+import restful.api.ezdine.entity.OrderEntity;
+import restful.api.ezdine.entity.OrderStatus;
+import restful.api.ezdine.entity.RoleEntity;
+import restful.api.ezdine.entity.UserEntity;
+import restful.api.ezdine.model.RegisterOrderItemRequest;
+import restful.api.ezdine.model.SalesReportResponse;
+import restful.api.ezdine.model.WebResponse;
+import restful.api.ezdine.repository.CategoryRepository;
+import restful.api.ezdine.repository.FoodRepository;
+import restful.api.ezdine.repository.OrderItemRepository;
+import restful.api.ezdine.repository.OrderRepository;
+import restful.api.ezdine.repository.RoleRepository;
+import restful.api.ezdine.repository.SalesDailyRollupRepository;
+import restful.api.ezdine.repository.UserRepository;
+import restful.api.ezdine.security.JwtUtil;
+import restful.api.ezdine.security.SecurityConstants;
+import restful.api.ezdine.service.OrderExportService;
+
+@EnableWebMvc
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private SalesDailyRollupRepository salesDailyRollupRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String email = "test@gmail.com";
+    private final String password = "rahasia";
+
+    private final String status = "waiting payment";
+
+    private final String categoryName = "appetizer";
+
+    private final String foodCode = "spaghetti";
+    private final String foodName = "spaghetti bolognese";
+    private final Double foodPrice = 20.0;
+    private final Integer foodStock = 10;
+
+    private final Integer itemQuantity = 2;
+
+    @BeforeEach
+    void setUp() {                
+
+        salesDailyRollupRepository.deleteAll();
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();        
+        foodRepository.deleteAll();
+        categoryRepository.deleteAll();        
+        userRepository.deleteAll();
+
+        RoleEntity role = roleRepository.findByName("ROLE_ADMIN").orElse(null);
+
+        UserEntity user = new UserEntity();
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRoles(Collections.singletonList(role));        
+        userRepository.save(user);
+
+        CategoryEntity category = new CategoryEntity();
+        category.setName(categoryName);
+        category.setUserEntity(user);
+        categoryRepository.save(category);
+
+        FoodEntity food = new FoodEntity();
+        food.setCode(foodCode);
+        food.setName(foodName);
+        food.setPrice(foodPrice);
+        food.setStock(foodStock);
+        food.setCategoryEntity(category);
+        foodRepository.save(food);
+    }
+
+    @Test
+    void testGetSalesReportSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+        String day = date.toInstant().atZone(ZoneOffset.UTC).toLocalDate().toString();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(0);
+        order.setTax(0.0);
+        order.setTotalPrice(0);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(itemQuantity);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/orders/" + order.getId() + "/items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/reports/sales")
+                        .param("from", day)
+                        .param("to", day)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<SalesReportResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(1, response.getData().size());
+            assertEquals(food.getId(), response.getData().get(0).getFoodId());
+            assertEquals(foodName, response.getData().get(0).getFoodName());
+            assertEquals(categoryName, response.getData().get(0).getCategoryName());
+            assertEquals(itemQuantity.longValue(), response.getData().get(0).getQuantity());
+            assertEquals(Math.round(foodPrice * itemQuantity), response.getData().get(0).getRevenue());
+        });
+    }
+
+    @Test
+    void testGetSalesReportAfterItemDelete() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+        String day = date.toInstant().atZone(ZoneOffset.UTC).toLocalDate().toString();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(0);
+        order.setTax(0.0);
+        order.setTotalPrice(0);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(itemQuantity);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/orders/" + order.getId() + "/items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        Integer itemId = orderItemRepository.findAllByOrderEntity(order).get(0).getId();
+
+        mockMvc.perform(
+                delete("/api/orders/" + order.getId() + "/items/" + itemId)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        mockMvc.perform(
+                get("/api/reports/sales")
+                        .param("from", day)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+                WebResponse<List<SalesReportResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(true, response.getStatus());
+            assertEquals(1, response.getData().size());
+            assertEquals(0L, response.getData().get(0).getQuantity());
+            assertEquals(0L, response.getData().get(0).getRevenue());
+        });
+    }
+
+    @Test
+    void testGetSalesReportBadRange() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/reports/sales")
+                        .param("from", "2025-02-01")
+                        .param("to", "2025-01-01")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isBadRequest()
+        ).andDo(result -> {
+                WebResponse<List<SalesReportResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+
+    @Test
+    void testGetOrdersCsvSuccess() throws Exception {
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        FoodEntity food = foodRepository.findByName(foodName).orElse(null);
+
+        Date date = new Date();
+        String day = date.toInstant().atZone(ZoneOffset.UTC).toLocalDate().toString();
+
+        OrderEntity order = new OrderEntity();
+        order.setUserEntity(user);
+        order.setOrderId(UUID.randomUUID());
+        order.setPlacedAt(date.toInstant());
+        order.setSubTotal(0);
+        order.setTax(0.0);
+        order.setTotalPrice(0);
+        order.setStatus(OrderStatus.fromLabel(status));
+        orderRepository.save(order);
+
+        RegisterOrderItemRequest request = new RegisterOrderItemRequest();
+        request.setOrderId(Integer.toString(order.getId())); 
+        request.setFoodId(Integer.toString(food.getId()));
+        request.setQuantity(itemQuantity);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                post("/api/orders/" + order.getId() + "/items")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isOk()
+        );
+
+        MvcResult mvcResult = mockMvc.perform(
+                get("/api/reports/orders.csv")
+                        .param("from", day)
+                        .param("to", day)
+                        .accept("text/csv")
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                request().asyncStarted()
+        ).andReturn();
+
+        mockMvc.perform(
+                asyncDispatch(mvcResult)
+        ).andExpectAll(
+                status().isOk()
+        ).andDo(result -> {
+            String[] lines = result.getResponse().getContentAsString().split("\n");
+
+            assertEquals(2, lines.length);
+            assertEquals(OrderExportService.HEADER, lines[0]);
+            assertTrue(lines[1].startsWith(order.getId() + "," + order.getOrderId() + ","));
+            assertTrue(lines[1].endsWith("," + foodCode + "," + foodName + "," + itemQuantity + "," + Math.round(foodPrice * itemQuantity)));
+        });
+    }
+
+    @Test
+    void testGetSalesReportBadRole() throws Exception {
+        RoleEntity role = roleRepository.findByName("ROLE_USER").orElse(null);
+
+        UserEntity user = userRepository.findByEmail(email).orElse(null);
+        user.setRoles(Collections.singletonList(role));        
+        userRepository.save(user);
+
+        Authentication authentication = authenticationManager.authenticate(
+                                            new UsernamePasswordAuthenticationToken(
+                                                email, password)
+                                            );
+
+        String mockToken = jwtUtil.generateToken(authentication);
+
+        user.setToken(mockToken);
+        user.setTokenExpiredAt(System.currentTimeMillis() + SecurityConstants.JWTexpiration);
+        userRepository.save(user);
+
+        String mockBearerToken = "Bearer " + mockToken;
+
+        mockMvc.perform(
+                get("/api/reports/sales")
+                        .param("from", "2025-01-01")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("Authorization", mockBearerToken)                        
+        ).andExpectAll(
+                status().isForbidden()
+        ).andDo(result -> {
+                WebResponse<List<SalesReportResponse>> response = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            assertEquals(false, response.getStatus());
+        });
+    }
+}